@@ -0,0 +1,73 @@
+package com.govindkulk.api_gateway.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.govindkulk.api_gateway.config.EdgeRedirectCacheConfig;
+
+/**
+ * Edge Redirect Cache
+ *
+ * Short link redirects that url-service marked as publicly cacheable, keyed by short code.
+ *
+ * Key Features:
+ * - Each entry lives for the upstream max-age, capped at edge-redirect-cache.max-ttl;
+ *   url-service already caps max-age at the link's remaining lifetime, so an expired
+ *   link is never served from here
+ * - Size-bounded, evicting least valuable entries first
+ * - Codes are evicted when a delete for them passes through this gateway; other
+ *   gateway instances, and deletes made on url-service directly, rely on the short
+ *   max-ttl (30s by default, like url-redirect-service's cache)
+ */
+@Component
+public class EdgeRedirectCache {
+
+    /**
+     * A cached redirect. expiresAt is when the entry (and any copy held by the client) goes stale.
+     */
+    public record Entry(int status, String location, Instant expiresAt) {
+
+        public Duration remaining(Instant now) {
+            Duration remaining = Duration.between(now, expiresAt);
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+    }
+
+    private final EdgeRedirectCacheConfig config;
+    private final Cache<String, Entry> cache;
+
+    public EdgeRedirectCache(EdgeRedirectCacheConfig config) {
+        this.config = config;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(Expiry.creating((String code, Entry entry) -> entry.remaining(Instant.now())))
+                .build();
+    }
+
+    /**
+     * @return the cached redirect, or null on a miss
+     */
+    public Entry get(String code) {
+        return config.isEnabled() ? cache.getIfPresent(code) : null;
+    }
+
+    /**
+     * Cache a redirect for at most maxAge (further capped at edge-redirect-cache.max-ttl).
+     */
+    public void put(String code, int status, String location, Duration maxAge) {
+        if (!config.isEnabled() || maxAge.isNegative() || maxAge.isZero()) {
+            return;
+        }
+        Duration ttl = maxAge.compareTo(config.getMaxTtl()) < 0 ? maxAge : config.getMaxTtl();
+        cache.put(code, new Entry(status, location, Instant.now().plus(ttl)));
+    }
+
+    public void evict(String code) {
+        cache.invalidate(code);
+    }
+}
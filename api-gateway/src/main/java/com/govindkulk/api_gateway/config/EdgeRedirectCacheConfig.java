@@ -0,0 +1,45 @@
+package com.govindkulk.api_gateway.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Edge Redirect Cache Configuration Properties
+ * Controls the gateway's in-memory cache of cacheable short link redirects
+ */
+@Component
+@ConfigurationProperties(prefix = "edge-redirect-cache")
+public class EdgeRedirectCacheConfig {
+
+    private boolean enabled = true;
+    private long maximumSize = 100000;                // entries kept in memory
+    private Duration maxTtl = Duration.ofSeconds(30); // cap on the upstream max-age; bounds how long a
+                                                       // deleted link is served when the delete did not
+                                                       // pass through this instance
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getMaxTtl() {
+        return maxTtl;
+    }
+
+    public void setMaxTtl(Duration maxTtl) {
+        this.maxTtl = maxTtl;
+    }
+}
@@ -0,0 +1,114 @@
+package com.govindkulk.api_gateway.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rate Limit Configuration Properties
+ * Per-client request limits applied by the gateway before routing
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+
+    private boolean enabled = true;
+    private long maximumKeys = 100000;       // clients tracked per rule before its map is trimmed
+    private int trustedProxies = 0;          // proxies in front of the gateway whose X-Forwarded-For is trusted
+    private List<String> forwardingClients = new ArrayList<>(); // servers (e.g. the frontend) calling for a visitor named in X-Forwarded-For
+    private List<Rule> rules = new ArrayList<>(); // checked in order; the first match applies
+
+    /**
+     * A limit for the requests matching its methods and paths, tracked separately per client
+     */
+    public static class Rule {
+
+        private String id;
+        private List<String> methods = new ArrayList<>(); // empty = any method
+        private List<String> paths = List.of("/**");      // gateway path patterns
+        private double replenishRate = 10;                // tokens added per second
+        private int burstCapacity = 20;                   // tokens a bucket holds when full
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumKeys() {
+        return maximumKeys;
+    }
+
+    public void setMaximumKeys(long maximumKeys) {
+        this.maximumKeys = maximumKeys;
+    }
+
+    public int getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(int trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public List<String> getForwardingClients() {
+        return forwardingClients;
+    }
+
+    public void setForwardingClients(List<String> forwardingClients) {
+        this.forwardingClients = forwardingClients;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+}
@@ -0,0 +1,135 @@
+package com.govindkulk.api_gateway.filter;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.govindkulk.api_gateway.cache.EdgeRedirectCache;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Edge Redirect Cache Filter
+ *
+ * Answers short link redirects from {@link EdgeRedirectCache} without proxying to url-service.
+ *
+ * Key Features:
+ * - Applies to GET /api/urls/{code} and GET /{code}
+ * - Populated from upstream 301/302 responses whose Cache-Control is public with a
+ *   max-age; tracked links are sent with no-store and so always reach url-service,
+ *   which keeps their click counts exact
+ * - Hits are answered with the cached status and Location, and a max-age counting
+ *   down to the entry's expiry
+ * - A successful DELETE /api/urls/{code} evicts the code
+ */
+@Component
+public class EdgeRedirectCacheFilter implements GlobalFilter, Ordered {
+
+    // Both redirect paths share one cache key; the cache key is the code itself
+    private static final Pattern REDIRECT_PATH = Pattern.compile("/(?:api/urls/)?([a-zA-Z0-9]+)");
+    private static final Pattern API_PATH = Pattern.compile("/api/urls/([a-zA-Z0-9]+)");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final EdgeRedirectCache cache;
+
+    public EdgeRedirectCacheFilter(EdgeRedirectCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        if (HttpMethod.DELETE.equals(request.getMethod())) {
+            Matcher matcher = API_PATH.matcher(path);
+            if (matcher.matches()) {
+                String code = matcher.group(1);
+                ServerHttpResponse response = exchange.getResponse();
+                response.beforeCommit(() -> {
+                    HttpStatusCode status = response.getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        cache.evict(code);
+                    }
+                    return Mono.empty();
+                });
+            }
+            return chain.filter(exchange);
+        }
+
+        Matcher matcher = REDIRECT_PATH.matcher(path);
+        if (!HttpMethod.GET.equals(request.getMethod()) || !matcher.matches()) {
+            return chain.filter(exchange);
+        }
+        String code = matcher.group(1);
+
+        EdgeRedirectCache.Entry entry = cache.get(code);
+        if (entry != null) {
+            return writeHit(exchange.getResponse(), entry);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            store(code, response);
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> writeHit(ServerHttpResponse response, EdgeRedirectCache.Entry entry) {
+        Instant now = Instant.now();
+        HttpHeaders headers = response.getHeaders();
+        response.setStatusCode(HttpStatusCode.valueOf(entry.status()));
+        headers.setLocation(URI.create(entry.location()));
+        headers.setCacheControl(CacheControl.maxAge(entry.remaining(now)).cachePublic());
+        headers.setExpires(entry.expiresAt().atZone(ZoneOffset.UTC));
+        return response.setComplete();
+    }
+
+    private void store(String code, ServerHttpResponse response) {
+        HttpStatusCode status = response.getStatusCode();
+        if (status == null || (status.value() != 301 && status.value() != 302)) {
+            return;
+        }
+        HttpHeaders headers = response.getHeaders();
+        URI location = headers.getLocation();
+        Duration maxAge = publicMaxAge(headers.getCacheControl());
+        if (location != null && maxAge != null) {
+            cache.put(code, status.value(), location.toString(), maxAge);
+        }
+    }
+
+    // Only responses any shared cache may store: public, with an explicit max-age
+    private static Duration publicMaxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return null;
+        }
+        String value = cacheControl.toLowerCase();
+        if (!value.contains("public") || value.contains("no-store") || value.contains("no-cache")
+                || value.contains("private")) {
+            return null;
+        }
+        Matcher matcher = MAX_AGE.matcher(value);
+        return matcher.find() ? Duration.ofSeconds(Long.parseLong(matcher.group(1))) : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return -200; // Ahead of authentication: redirects need no user headers
+    }
+}
@@ -1,19 +1,23 @@
 package com.govindkulk.api_gateway.filter;
 
 import com.govindkulk.api_gateway.jwt.JwtUtil;
+import com.govindkulk.api_gateway.jwt.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.regex.Pattern;
+
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
+    private static final Pattern SHORT_URL_PATH = Pattern.compile("/[a-zA-Z0-9]+");
+
     private final JwtUtil jwtUtil;
 
     @Autowired
@@ -36,36 +40,18 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             return chain.filter(exchange);
         }
         
-        // Extract JWT token from Authorization header
-        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        // One verification per request, shared with the rate limiter; repeat tokens
+        // are answered from JwtUtil's cache
+        VerifiedToken verified = jwtUtil.verify(exchange);
+        if (verified != null && verified.userId() != null && verified.username() != null) {
             
-            System.out.println("authHeader is null");
-            return chain.filter(exchange);
-        }
-        
-        System.out.println("authHeader: " + authHeader);
-        String token = authHeader.substring(7);
-        
-        if (jwtUtil.validateToken(token)) {
-
-            System.out.println("Token is valid");
-            // Extract user ID from token
-            Long userId = jwtUtil.extractUserId(token);
-            String username = jwtUtil.extractUsername(token);
-
-            System.out.println("username: " + username);
-            System.out.println("userId: " + userId);
+            // Add user info to headers
+            ServerHttpRequest modifiedRequest = request.mutate()
+                .header("X-Username", verified.username())
+                .header("X-User-ID", verified.userId().toString())
+                .build();
             
-                // Add user info to headers
-                ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-Username", username)
-                    .header("X-User-ID", userId.toString())
-                    .build();
-                
-                return chain.filter(exchange.mutate().request(modifiedRequest).build());
-        
+            return chain.filter(exchange.mutate().request(modifiedRequest).build());
         }
         
         // Token is invalid, continue without user info
@@ -75,7 +61,7 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     private boolean shouldSkipAuthentication(String path) {
 
         // Skip authentication for redirects (short URLs)
-        if (path.matches("/[a-zA-Z0-9]+")) {
+        if (SHORT_URL_PATH.matcher(path).matches()) {
             return true;
         }
         
@@ -0,0 +1,51 @@
+package com.govindkulk.api_gateway.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.govindkulk.api_gateway.ratelimit.RateLimiter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate Limit Filter
+ *
+ * Rejects requests whose client has used up its {@link RateLimiter} budget with
+ * 429 Too Many Requests and a Retry-After (in whole seconds, at least 1) telling
+ * the client when its next token is due.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long wait = rateLimiter.acquire(exchange);
+        if (wait == 0) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return -250; // Ahead of the edge redirect cache, so cached redirects are limited too
+    }
+}
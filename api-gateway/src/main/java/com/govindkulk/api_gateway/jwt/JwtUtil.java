@@ -1,99 +1,142 @@
 package com.govindkulk.api_gateway.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.function.Function;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 
+/**
+ * JWT Util
+ *
+ * Verifies access tokens for the gateway's authentication filter.
+ *
+ * Key Features:
+ * - The signing key and parser are built once; a token is parsed and its signature
+ *   and expiry checked in a single pass
+ * - Verified claims are cached by SHA-256 digest of the token, so repeat requests
+ *   with the same token skip parsing and HMAC verification
+ * - A cache entry never outlives the token's exp claim
+ * - Refresh tokens are refused, so a revoked one cannot stand in for an access token
+ * - The outcome for a request's bearer token is kept in the exchange, so the rate
+ *   limiter and the authentication filter share one verification
+ */
 @Component
 public class JwtUtil {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    private static final String REFRESH = "REFRESH";
+    private static final String VERIFIED_ATTRIBUTE = JwtUtil.class.getName() + ".verified";
+
+    private final JwtParser parser;
+    private final Cache<ByteBuffer, VerifiedToken> verifiedTokens;
     
-    private final String secret;
-    private final SecretKey secretKey;
-    
-    public JwtUtil(@Value("${jwt.secret:my-super-secret-jwt-key-that-is-at-least-32-characters-long}") String secret) {
-        this.secret = secret;
-        
+    public JwtUtil(@Value("${jwt.secret:my-super-secret-jwt-key-that-is-at-least-32-characters-long}") String secret,
+            @Value("${jwt.claims-cache.maximum-size:10000}") long claimsCacheSize) {
         // Ensure the secret is at least 32 characters (256 bits)
         if (secret.length() < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 32 characters long for HMAC-SHA256");
         }
         
         try {
-            // Create the secret key once during initialization
-            byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-            this.secretKey = Keys.hmacShaKeyFor(keyBytes);
-            System.out.println("JwtUtil initialized successfully with secret length: " + secret.length());
+            // Create the secret key and parser once during initialization
+            SecretKey secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize JWT secret key: " + e.getMessage(), e);
         }
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(Expiry.creating((ByteBuffer digest, VerifiedToken token) -> {
+                    Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+                    return remaining.isNegative() ? Duration.ZERO : remaining;
+                }))
+                .build();
     }
-    
-    private SecretKey getSigningKey() {
-        return this.secretKey;
+
+    /**
+     * Verify the request's bearer token, at most once per exchange
+     *
+     * @return the token's claims, or null if there is no bearer token or it is not
+     *         a valid access token
+     */
+    public VerifiedToken verify(ServerWebExchange exchange) {
+        Object known = exchange.getAttribute(VERIFIED_ATTRIBUTE);
+        if (known != null) {
+            return known instanceof VerifiedToken verified ? verified : null;
+        }
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        VerifiedToken verified = authHeader != null && authHeader.startsWith("Bearer ")
+                ? verify(authHeader.substring(7))
+                : null;
+        exchange.getAttributes().put(VERIFIED_ATTRIBUTE, verified != null ? verified : Boolean.FALSE);
+        return verified;
     }
-    
-    public String extractUsername(String token) {
+
+    /**
+     * @return the token's claims, or null if the signature is invalid, the token has
+     *         expired or it carries no expiry
+     */
+    public VerifiedToken verify(String token) {
+        Instant now = Instant.now();
+        ByteBuffer digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(now)) {
+            return cached;
+        }
+
+        Claims claims;
         try {
-            return extractClaim(token, Claims::getSubject);
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
-            System.out.println("Failed to extract username: " + e.getMessage());
+            log.debug("Token validation failed: {}", e.getMessage());
             return null;
         }
-    }
-    
-    public Long extractUserId(String token) {
-        try {
-            final Claims claims = extractAllClaims(token);
-            return claims.get("userid", Long.class);
-        } catch (Exception e) {
-            System.out.println("Failed to extract userId: " + e.getMessage());
+        if (REFRESH.equals(claims.get("type"))) {
+            // Refresh tokens are only good at /api/auth/refresh, where user-service can
+            // check them against its revocation store
             return null;
         }
-    }
-    
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-    
-    private Claims extractAllClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse JWT token: " + e.getMessage(), e);
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return null; // access tokens are always issued with exp
         }
-    }
-    
-    public Boolean validateToken(String token) {
+        VerifiedToken verified;
         try {
-            System.out.println("Validating token with secret length: " + secret.length());
-            return !isTokenExpired(token);
+            verified = new VerifiedToken(claims.get("userid", Long.class), claims.getSubject(), expiration.toInstant());
         } catch (Exception e) {
-            System.out.println("Token validation failed: " + e.getMessage());
-            return false;
+            log.debug("Failed to extract token claims: {}", e.getMessage());
+            return null;
         }
+        verifiedTokens.put(digest, verified);
+        return verified;
     }
-    
-    private Boolean isTokenExpired(String token) {
+
+    private static ByteBuffer digest(String token) {
         try {
-            return extractExpiration(token).before(new java.util.Date());
-        } catch (Exception e) {
-            System.out.println("Failed to check token expiration: " + e.getMessage());
-            return true;
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM ships SHA-256
         }
     }
-    
-    private java.util.Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.govindkulk.api_gateway.jwt;
+
+import java.time.Instant;
+
+/**
+ * The claims the gateway needs from an access token whose signature and expiry have been checked.
+ */
+public record VerifiedToken(Long userId, String username, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,241 @@
+package com.govindkulk.api_gateway.ratelimit;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.govindkulk.api_gateway.config.RateLimitConfig;
+import com.govindkulk.api_gateway.jwt.JwtUtil;
+import com.govindkulk.api_gateway.jwt.VerifiedToken;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Rate Limiter
+ *
+ * Per-client token buckets for the rules in rate-limit.rules.
+ *
+ * Key Features:
+ * - The first rule whose methods and paths match a request applies; requests
+ *   matching no rule are not limited
+ * - Clients are identified by user id when the request carries a valid access
+ *   token, otherwise by IP address (taken from X-Forwarded-For when
+ *   rate-limit.trusted-proxies is set)
+ * - Requests from rate-limit.forwarding-clients, such as the frontend fetching a
+ *   redirect target for a visitor, are keyed by the next X-Forwarded-For entry, so
+ *   every visitor gets a bucket instead of all sharing the frontend's
+ * - Tokens are only verified for requests whose IP bucket is not empty, so a flood
+ *   of forged tokens is turned away without a signature check per request;
+ *   requests without a bearer token never reach the verifier
+ * - Each rule keeps its own map of {@link TokenBucket}s. A lookup is a plain
+ *   ConcurrentHashMap read and a take is one CAS, so the redirect path pays well
+ *   under a microsecond
+ * - A map that grows past rate-limit.maximum-keys is trimmed in the background:
+ *   first buckets that have refilled, which loses nothing, then the ones closest
+ *   to full
+ * - Allowed and rejected requests are counted per rule
+ *   (gateway.ratelimit.allowed / gateway.ratelimit.rejected)
+ */
+@Component
+public class RateLimiter {
+
+    private static final Object UNKNOWN_CLIENT = new Object();
+
+    private final RateLimitConfig config;
+    private final JwtUtil jwtUtil;
+    private final RemoteAddressResolver addressResolver;
+    private final RemoteAddressResolver forwardedAddressResolver;
+    private final Set<Object> forwardingClients = new HashSet<>();
+    private final Limit[] limits;
+
+    public RateLimiter(RateLimitConfig config, JwtUtil jwtUtil, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.jwtUtil = jwtUtil;
+        this.addressResolver = config.getTrustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(config.getTrustedProxies())
+                : new RemoteAddressResolver() { }; // the connection's remote address
+        this.forwardedAddressResolver = XForwardedRemoteAddressResolver.maxTrustedIndex(config.getTrustedProxies() + 1);
+        for (String client : config.getForwardingClients()) {
+            // Matched against client keys, which are InetAddresses or, from X-Forwarded-For, text
+            forwardingClients.add(client);
+            try {
+                forwardingClients.add(InetAddress.getByName(client));
+            } catch (UnknownHostException e) {
+                throw new IllegalArgumentException("Unknown rate limit forwarding client " + client, e);
+            }
+        }
+        List<Limit> limits = new ArrayList<>();
+        for (RateLimitConfig.Rule rule : config.getRules()) {
+            limits.add(new Limit(rule, config.getMaximumKeys(), meterRegistry));
+        }
+        this.limits = limits.toArray(Limit[]::new);
+    }
+
+    /**
+     * Take a token for this request from its client's bucket
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the
+     *         client's next token
+     */
+    public long acquire(ServerWebExchange exchange) {
+        if (!config.isEnabled()) {
+            return 0;
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (Limit limit : limits) {
+            if (limit.matches(method, path)) {
+                return acquire(limit, exchange);
+            }
+        }
+        return 0;
+    }
+
+    private long acquire(Limit limit, ServerWebExchange exchange) {
+        Object address = address(exchange);
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return limit.acquire(address);
+        }
+        // An address that is out of tokens is refused before its token is verified.
+        // Users behind that address wait with it, which is the price of not verifying
+        // every forged token in a flood
+        long wait = limit.waitFor(address);
+        if (wait > 0) {
+            return wait;
+        }
+        VerifiedToken token = jwtUtil.verify(exchange);
+        return limit.acquire(token != null && token.userId() != null ? token.userId() : address);
+    }
+
+    // Long user ids and InetAddresses never compare equal, so they share one map
+    private Object address(ServerWebExchange exchange) {
+        Object address = key(addressResolver.resolve(exchange));
+        if (forwardingClients.contains(address)) {
+            // Falls back to the connection's address if no visitor is named
+            address = key(forwardedAddressResolver.resolve(exchange));
+        }
+        return address;
+    }
+
+    private static Object key(InetSocketAddress address) {
+        if (address == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return address.getAddress() != null ? address.getAddress() : address.getHostString();
+    }
+
+    private static final class Limit {
+
+        private final Set<HttpMethod> methods = new HashSet<>();
+        private final List<PathPattern> paths = new ArrayList<>();
+        private final long interval;
+        private final long window;
+        private final long maximumKeys;
+        private final ConcurrentHashMap<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final AtomicBoolean trimming = new AtomicBoolean();
+        private final Counter allowed;
+        private final Counter rejected;
+
+        Limit(RateLimitConfig.Rule rule, long maximumKeys, MeterRegistry meterRegistry) {
+            if (rule.getId() == null || rule.getReplenishRate() <= 0 || rule.getBurstCapacity() < 1) {
+                throw new IllegalArgumentException("Rate limit rule " + rule.getId()
+                        + " needs an id, a positive replenish-rate and a burst-capacity of at least 1");
+            }
+            for (String method : rule.getMethods()) {
+                methods.add(HttpMethod.valueOf(method.toUpperCase()));
+            }
+            for (String path : rule.getPaths()) {
+                paths.add(PathPatternParser.defaultInstance.parse(path));
+            }
+            this.interval = Math.max(1, Math.round(1_000_000_000 / rule.getReplenishRate()));
+            this.window = interval * rule.getBurstCapacity();
+            this.maximumKeys = maximumKeys;
+            this.allowed = Counter.builder("gateway.ratelimit.allowed")
+                    .description("Requests that found a token in their client's bucket")
+                    .tag("rule", rule.getId())
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("gateway.ratelimit.rejected")
+                    .description("Requests rejected with 429 because their client's bucket was empty")
+                    .tag("rule", rule.getId())
+                    .register(meterRegistry);
+        }
+
+        boolean matches(HttpMethod method, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            for (PathPattern pattern : paths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long acquire(Object client) {
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.get(client);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(client, c -> new TokenBucket(now));
+                if (buckets.size() > maximumKeys && trimming.compareAndSet(false, true)) {
+                    Schedulers.parallel().schedule(this::trim);
+                }
+            }
+            long wait = bucket.tryTake(now, interval, window);
+            (wait == 0 ? allowed : rejected).increment();
+            return wait;
+        }
+
+        // Like acquire, but takes no token; a refusal counts as rejected
+        long waitFor(Object client) {
+            TokenBucket bucket = buckets.get(client);
+            long wait = bucket == null ? 0 : bucket.waitFor(System.nanoTime(), interval, window);
+            if (wait > 0) {
+                rejected.increment();
+            }
+            return wait;
+        }
+
+        // Brings the map back to 90% of maximumKeys, again if clients arrived meanwhile.
+        // A bucket removed while a request is taking from it hands that client at most
+        // one extra burst
+        private void trim() {
+            try {
+                do {
+                    long now = System.nanoTime();
+                    buckets.values().removeIf(bucket -> bucket.fullIn(now) == 0);
+                    int excess = buckets.size() - (int) (maximumKeys * 0.9);
+                    if (excess > 0) {
+                        long[] fullIn = buckets.values().stream().mapToLong(bucket -> bucket.fullIn(now)).sorted().toArray();
+                        long cutoff = fullIn[Math.min(excess, fullIn.length) - 1];
+                        buckets.values().removeIf(bucket -> bucket.fullIn(now) <= cutoff);
+                    }
+                } while (buckets.size() > maximumKeys);
+            } finally {
+                trimming.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.govindkulk.api_gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token Bucket
+ *
+ * Lock-free token bucket held in a single long: the instant at which the bucket
+ * will be full again (the "theoretical arrival time" of GCRA). Taking a token
+ * pushes that instant one interval further; the bucket is empty once it lies a
+ * full window (burst capacity × interval) ahead of now.
+ *
+ * Refill is implicit in the passing of time, so there is no timer and no state
+ * besides the one timestamp, updated with a CAS. All times are System.nanoTime.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @param interval nanoseconds to replenish one token
+     * @param window   nanoseconds to replenish the whole bucket
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryTake(long now, long interval, long window) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - window - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return 0 if a token is available, otherwise the nanoseconds until one is;
+     *         takes nothing
+     */
+    long waitFor(long now, long interval, long window) {
+        return Math.max(0, Math.max(fullAt.get(), now) + interval - window - now);
+    }
+
+    /**
+     * @return nanoseconds until the bucket is full again; a full bucket can be
+     *         dropped and recreated without changing any outcome
+     */
+    long fullIn(long now) {
+        return Math.max(0, fullAt.get() - now);
+    }
+}
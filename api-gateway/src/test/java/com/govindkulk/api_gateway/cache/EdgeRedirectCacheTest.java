@@ -0,0 +1,66 @@
+package com.govindkulk.api_gateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.govindkulk.api_gateway.config.EdgeRedirectCacheConfig;
+
+class EdgeRedirectCacheTest {
+
+    private final EdgeRedirectCacheConfig config = new EdgeRedirectCacheConfig();
+
+    @Test
+    void upstreamMaxAgeIsCappedAtMaxTtl() {
+        EdgeRedirectCache cache = new EdgeRedirectCache(config);
+        cache.put("abc", 301, "https://example.com", Duration.ofDays(1));
+
+        EdgeRedirectCache.Entry entry = cache.get("abc");
+        assertEquals(301, entry.status());
+        assertEquals("https://example.com", entry.location());
+        assertTrue(entry.remaining(Instant.now()).compareTo(Duration.ofSeconds(30)) <= 0);
+    }
+
+    @Test
+    void shorterMaxAgeIsKept() {
+        EdgeRedirectCache cache = new EdgeRedirectCache(config);
+        cache.put("abc", 302, "https://example.com", Duration.ofSeconds(5));
+
+        assertTrue(cache.get("abc").remaining(Instant.now()).compareTo(Duration.ofSeconds(5)) <= 0);
+    }
+
+    @Test
+    void expiredEntriesAreNotServed() throws InterruptedException {
+        config.setMaxTtl(Duration.ofMillis(20));
+        EdgeRedirectCache cache = new EdgeRedirectCache(config);
+        cache.put("abc", 301, "https://example.com", Duration.ofDays(1));
+        Thread.sleep(50);
+
+        assertNull(cache.get("abc"));
+    }
+
+    @Test
+    void zeroMaxAgeAndDisabledCacheStoreNothing() {
+        EdgeRedirectCache cache = new EdgeRedirectCache(config);
+        cache.put("abc", 301, "https://example.com", Duration.ZERO);
+        assertNull(cache.get("abc"));
+
+        config.setEnabled(false);
+        cache.put("def", 301, "https://example.com", Duration.ofSeconds(10));
+        assertNull(cache.get("def"));
+    }
+
+    @Test
+    void evictedCodesMiss() {
+        EdgeRedirectCache cache = new EdgeRedirectCache(config);
+        cache.put("abc", 301, "https://example.com", Duration.ofSeconds(10));
+        cache.evict("abc");
+
+        assertNull(cache.get("abc"));
+    }
+}
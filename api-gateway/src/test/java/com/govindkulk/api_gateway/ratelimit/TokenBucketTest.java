@@ -0,0 +1,126 @@
+package com.govindkulk.api_gateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    // 5 tokens, one every 100ns
+    private static final long INTERVAL = 100;
+    private static final long WINDOW = 5 * INTERVAL;
+
+    @Test
+    void fullBucketAllowsABurstOfItsCapacity() {
+        TokenBucket bucket = new TokenBucket(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryTake(0, INTERVAL, WINDOW), "token " + i);
+        }
+        assertEquals(INTERVAL, bucket.tryTake(0, INTERVAL, WINDOW));
+    }
+
+    @Test
+    void tokensComeBackOnePerInterval() {
+        TokenBucket bucket = new TokenBucket(0);
+        drain(bucket, 0);
+
+        assertEquals(40, bucket.tryTake(60, INTERVAL, WINDOW));
+        assertEquals(0, bucket.tryTake(100, INTERVAL, WINDOW));
+        assertEquals(INTERVAL, bucket.tryTake(100, INTERVAL, WINDOW));
+        assertEquals(0, bucket.tryTake(320, INTERVAL, WINDOW));
+        assertEquals(0, bucket.tryTake(320, INTERVAL, WINDOW));
+        assertEquals(80, bucket.tryTake(320, INTERVAL, WINDOW));
+    }
+
+    @Test
+    void idleTimeNeverBanksMoreThanTheCapacity() {
+        TokenBucket bucket = new TokenBucket(0);
+        drain(bucket, 0);
+
+        long later = 1_000_000;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryTake(later, INTERVAL, WINDOW), "token " + i);
+        }
+        assertEquals(INTERVAL, bucket.tryTake(later, INTERVAL, WINDOW));
+    }
+
+    @Test
+    void refusedRequestsDoNotPushTheRefillBack() {
+        TokenBucket bucket = new TokenBucket(0);
+        drain(bucket, 0);
+        for (int i = 0; i < 10; i++) {
+            bucket.tryTake(50, INTERVAL, WINDOW);
+        }
+
+        assertEquals(0, bucket.tryTake(100, INTERVAL, WINDOW));
+    }
+
+    @Test
+    void waitForTakesNothing() {
+        TokenBucket bucket = new TokenBucket(0);
+        assertEquals(0, bucket.waitFor(0, INTERVAL, WINDOW));
+        drain(bucket, 0);
+
+        assertEquals(INTERVAL, bucket.waitFor(0, INTERVAL, WINDOW));
+        assertEquals(30, bucket.waitFor(70, INTERVAL, WINDOW));
+        assertEquals(0, bucket.waitFor(100, INTERVAL, WINDOW));
+        assertEquals(0, bucket.tryTake(100, INTERVAL, WINDOW));
+    }
+
+    @Test
+    void fullInCountsDownToAFullBucket() {
+        TokenBucket bucket = new TokenBucket(0);
+        assertEquals(0, bucket.fullIn(0));
+
+        bucket.tryTake(0, INTERVAL, WINDOW);
+        bucket.tryTake(0, INTERVAL, WINDOW);
+        assertEquals(200, bucket.fullIn(0));
+        assertEquals(50, bucket.fullIn(150));
+        assertEquals(0, bucket.fullIn(400));
+    }
+
+    @Test
+    void concurrentTakersNeverGetMoreThanTheCapacity() throws InterruptedException {
+        long interval = 1_000;
+        long window = 1_000 * interval;
+        TokenBucket bucket = new TokenBucket(0);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryTake(0, interval, window) == 0) {
+                        taken.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1_000, taken.get());
+    }
+
+    private static void drain(TokenBucket bucket, long now) {
+        while (bucket.tryTake(now, INTERVAL, WINDOW) == 0) {
+            // take every token
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.govindkulk.url_redirect_service;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+public class UrlRedirectServiceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(UrlRedirectServiceApplication.class, args);
+	}
+
+}
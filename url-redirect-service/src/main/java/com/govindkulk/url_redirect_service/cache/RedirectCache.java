@@ -0,0 +1,76 @@
+package com.govindkulk.url_redirect_service.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.govindkulk.url_redirect_service.config.RedirectCacheConfig;
+import com.govindkulk.url_redirect_service.dto.RedirectTarget;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Redirect Cache
+ *
+ * Non-blocking read-through cache of shortUrl -> {@link RedirectTarget}.
+ *
+ * Key Features:
+ * - Caffeine AsyncCache holds the pending lookup, so concurrent misses for the
+ *   same code share one query instead of each going to the database
+ * - An entry never outlives its link: the TTL is capped at the remaining lifetime
+ * - Deletes in url-service are not propagated here, so the TTL is kept short (30s
+ *   by default): it is how long a deleted link can keep redirecting. Hot links
+ *   still cost only one query per TTL per instance
+ * - Codes that are not found are not cached
+ * - Hit/miss/eviction counters are published as "cache.*" metrics under the name "redirects"
+ */
+@Component
+public class RedirectCache {
+
+    public static final String CACHE_NAME = "redirects";
+
+    private final AsyncCache<String, RedirectTarget> cache;
+    private final boolean enabled;
+
+    public RedirectCache(RedirectCacheConfig config, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        Duration ttl = config.getTtl();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(Expiry.creating((String shortUrl, RedirectTarget target) -> ttlFor(target, ttl)))
+                // maintenance is cheap; run it on the calling thread rather than the common pool
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached redirect target, loading it with the given function on a miss.
+     * An empty or failed load caches nothing.
+     */
+    public Mono<RedirectTarget> get(String shortUrl, Function<String, Mono<RedirectTarget>> loader) {
+        if (!enabled) {
+            return loader.apply(shortUrl);
+        }
+        return Mono.fromFuture(() -> cache.get(shortUrl, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    private static Duration ttlFor(RedirectTarget target, Duration ttl) {
+        if (target.expirationDate() == null) {
+            return ttl;
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), target.expirationDate());
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(ttl) < 0 ? remaining : ttl;
+    }
+}
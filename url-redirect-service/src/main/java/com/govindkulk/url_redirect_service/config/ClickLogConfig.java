@@ -0,0 +1,59 @@
+package com.govindkulk.url_redirect_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Click Log Configuration Properties
+ * Forwarding of tracked clicks to url-service's click event log
+ */
+@Component
+@ConfigurationProperties(prefix = "click-log")
+public class ClickLogConfig {
+
+    private boolean enabled = true;
+    private String url = "http://url-service"; // resolved through Eureka
+    private int queueCapacity = 1 << 16;       // clicks buffered while url-service is slow or down; the rest are dropped
+    private int batchSize = 1000;              // clicks per request
+    private long flushIntervalMs = 1000;       // how often buffered clicks are sent
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+}
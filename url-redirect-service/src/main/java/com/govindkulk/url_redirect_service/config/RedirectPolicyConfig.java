@@ -0,0 +1,26 @@
+package com.govindkulk.url_redirect_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redirect Policy Configuration Properties
+ * HTTP cache lifetime of cacheable redirects; keep in step with url-service
+ */
+@Component
+@ConfigurationProperties(prefix = "redirect-policy")
+public class RedirectPolicyConfig {
+
+    // Upper bound for Cache-Control max-age; the link's remaining lifetime is used when shorter
+    private Duration maxAge = Duration.ofDays(1);
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,89 @@
+package com.govindkulk.url_redirect_service.controller;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.govindkulk.url_redirect_service.config.RedirectPolicyConfig;
+import com.govindkulk.url_redirect_service.dto.RedirectTarget;
+import com.govindkulk.url_redirect_service.service.RedirectService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Redirect endpoints, response-compatible with url-service's GET /api/urls/{shortUrl}.
+ * Also answers on /{shortUrl}, the bare short link path the gateway already routes.
+ */
+@RestController
+public class RedirectController {
+
+    private static final Map<String, Object> URL_NOT_FOUND = Map.of("message", "Url not found");
+
+    private final RedirectService redirectService;
+
+    private final RedirectPolicyConfig redirectPolicyConfig;
+
+    public RedirectController(RedirectService redirectService, RedirectPolicyConfig redirectPolicyConfig) {
+        this.redirectService = redirectService;
+        this.redirectPolicyConfig = redirectPolicyConfig;
+    }
+
+    @GetMapping({ "/api/urls/{shortUrl}", "/{shortUrl:[a-zA-Z0-9]+}" })
+    public Mono<ResponseEntity<Object>> redirect(@PathVariable String shortUrl, ServerHttpRequest request) {
+        return redirectService.getRedirectTarget(shortUrl)
+                .map(target -> {
+                    HttpHeaders requestHeaders = request.getHeaders();
+                    redirectService.recordClick(shortUrl, target, requestHeaders.getFirst(HttpHeaders.REFERER),
+                            requestHeaders.getFirst(HttpHeaders.USER_AGENT), clientAddress(request));
+                    return ResponseEntity.status(target.redirectType().getStatus())
+                            .location(URI.create(target.originalUrl()))
+                            .headers(headers -> applyCachePolicy(headers, target))
+                            .build();
+                })
+                .defaultIfEmpty(ResponseEntity.status(404).body(URL_NOT_FOUND));
+    }
+
+    // Behind the gateway the remote address is the gateway's; it appends the address it
+    // saw to X-Forwarded-For, so the last entry is the one no client can forge
+    private static String clientAddress(ServerHttpRequest request) {
+        String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            InetSocketAddress remoteAddress = request.getRemoteAddress();
+            return remoteAddress == null || remoteAddress.getAddress() == null
+                    ? null
+                    : remoteAddress.getAddress().getHostAddress();
+        }
+        return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+    }
+
+    // Cacheable redirects may be reused by browsers and CDNs until the link expires
+    // (capped at redirect-policy.max-age); tracked redirects must reach us on every click
+    private void applyCachePolicy(HttpHeaders headers, RedirectTarget target) {
+        if (!target.redirectType().isCacheable()) {
+            headers.setCacheControl(CacheControl.noStore());
+            return;
+        }
+        Instant now = Instant.now();
+        Duration maxAge = redirectPolicyConfig.getMaxAge();
+        if (target.expirationDate() != null) {
+            Duration remaining = Duration.between(now, target.expirationDate().atZone(ZoneId.systemDefault()).toInstant());
+            if (remaining.compareTo(maxAge) < 0) {
+                maxAge = remaining.isNegative() ? Duration.ZERO : remaining;
+            }
+        }
+        headers.setCacheControl(CacheControl.maxAge(maxAge).cachePublic());
+        headers.setExpires(now.plus(maxAge).atZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,8 @@
+package com.govindkulk.url_redirect_service.dto;
+
+/**
+ * One tracked click, in the shape url-service's POST /internal/clicks accepts.
+ * timestamp is in epoch milliseconds; referrer and userAgent may be null.
+ */
+public record ClickEvent(String shortUrl, long timestamp, String referrer, String userAgent, String clientAddress) {
+}
@@ -0,0 +1,22 @@
+package com.govindkulk.url_redirect_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.govindkulk.url_redirect_service.model.RedirectType;
+
+/**
+ * The url_mapping columns a redirect needs.
+ * A null expirationDate never expires; a null redirectType is TRACKED.
+ */
+public record RedirectTarget(String originalUrl, LocalDateTime expirationDate, RedirectType redirectType) {
+
+    public RedirectTarget {
+        if (redirectType == null) {
+            redirectType = RedirectType.TRACKED;
+        }
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return expirationDate != null && !expirationDate.isAfter(now);
+    }
+}
@@ -0,0 +1,35 @@
+package com.govindkulk.url_redirect_service.model;
+
+/**
+ * How a short link redirects; mirrors url-service's RedirectType, stored in
+ * url_mapping.redirect_type. Rows without a stored type behave as TRACKED.
+ */
+public enum RedirectType {
+
+    // 302, never cached: every click reaches us and is counted
+    TRACKED(302, true),
+    // 302, cacheable by browsers and CDNs until the link expires; clicks are not counted
+    CACHEABLE(302, false),
+    // 301, cacheable until the link expires; for links whose target never changes
+    PERMANENT(301, false);
+
+    private final int status;
+    private final boolean countsClicks;
+
+    RedirectType(int status, boolean countsClicks) {
+        this.status = status;
+        this.countsClicks = countsClicks;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean countsClicks() {
+        return countsClicks;
+    }
+
+    public boolean isCacheable() {
+        return !countsClicks;
+    }
+}
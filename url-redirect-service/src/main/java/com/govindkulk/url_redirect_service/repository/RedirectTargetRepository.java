@@ -0,0 +1,42 @@
+package com.govindkulk.url_redirect_service.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.govindkulk.url_redirect_service.dto.RedirectTarget;
+import com.govindkulk.url_redirect_service.model.RedirectType;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads redirect targets from url-service's url_mapping table over R2DBC.
+ * The schema is owned by url-service (UrlMapping); this service never writes it
+ * apart from click counts.
+ */
+@Repository
+public class RedirectTargetRepository {
+
+    private static final String FIND_SQL = "SELECT original_url, expiration_date, redirect_type "
+            + "FROM url_mapping WHERE short_url = $1";
+
+    private final DatabaseClient databaseClient;
+
+    public RedirectTargetRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<RedirectTarget> findByShortUrl(String shortUrl) {
+        return databaseClient.sql(FIND_SQL)
+                .bind(0, shortUrl)
+                .map((row, metadata) -> {
+                    String redirectType = row.get("redirect_type", String.class);
+                    return new RedirectTarget(
+                            row.get("original_url", String.class),
+                            row.get("expiration_date", LocalDateTime.class),
+                            redirectType == null ? null : RedirectType.valueOf(redirectType));
+                })
+                .one();
+    }
+}
@@ -0,0 +1,138 @@
+package com.govindkulk.url_redirect_service.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+
+/**
+ * Click Count Aggregator
+ *
+ * Write-behind buffer for redirect clicks, same design as url-service's: clicks are
+ * counted in memory and flushed as one batched "click_count = click_count + $1"
+ * statement, so the event loop never waits on a write.
+ *
+ * Key Features:
+ * - Counters are split across lock stripes chosen by short URL hash; a stripe is
+ *   held only for a map update, never across I/O
+ * - Flushing swaps each stripe for an empty one and runs on the scheduler thread
+ * - Increments from a failed flush are put back and retried on the next run
+ * - The buffer is drained on shutdown
+ */
+@Component
+public class ClickCountAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickCountAggregator.class);
+
+    private static final String INCREMENT_SQL =
+            "UPDATE url_mapping SET click_count = click_count + $1 WHERE short_url = $2";
+
+    private static final int STRIPES = 16; // power of two, see stripeFor
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+    private final DatabaseClient databaseClient;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ClickCountAggregator(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Record one click. Never touches the database.
+     */
+    public void increment(String shortUrl) {
+        add(shortUrl, 1);
+    }
+
+    /**
+     * Write all buffered increments to the database in a single batch.
+     */
+    @Scheduled(fixedDelayString = "${click-counter.flush-interval-ms:5000}")
+    public void flush() {
+        // Sorted so concurrent replicas lock rows in the same order
+        Map<String, Long> pending = new TreeMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.drainTo(pending);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            databaseClient.inConnectionMany(connection -> {
+                Statement statement = connection.createStatement(INCREMENT_SQL);
+                boolean first = true;
+                for (Map.Entry<String, Long> entry : pending.entrySet()) {
+                    if (!first) {
+                        statement.add();
+                    }
+                    statement.bind(0, entry.getValue()).bind(1, entry.getKey());
+                    first = false;
+                }
+                return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+            }).then().block(FLUSH_TIMEOUT);
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} click counters, will retry: {}", pending.size(), e.getMessage());
+            pending.forEach(this::add);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void add(String shortUrl, long count) {
+        stripeFor(shortUrl).add(shortUrl, count);
+    }
+
+    private Stripe stripeFor(String shortUrl) {
+        int h = shortUrl.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<String, Long> counts = new HashMap<>();
+
+        void add(String shortUrl, long count) {
+            lock.lock();
+            try {
+                counts.merge(shortUrl, count, Long::sum);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drainTo(Map<String, Long> target) {
+            Map<String, Long> drained;
+            lock.lock();
+            try {
+                if (counts.isEmpty()) {
+                    return;
+                }
+                drained = counts;
+                counts = new HashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            drained.forEach((shortUrl, count) -> target.merge(shortUrl, count, Long::sum));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.govindkulk.url_redirect_service.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.govindkulk.url_redirect_service.config.ClickLogConfig;
+import com.govindkulk.url_redirect_service.dto.ClickEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Click Log Forwarder
+ *
+ * Sends tracked clicks served here to url-service, which appends them to its click
+ * event log, so the log and the click statistics built from it cover both redirect
+ * paths.
+ *
+ * Key Features:
+ * - record() only offers the click to a bounded queue; the event loop never waits
+ *   on url-service, and a full queue drops the click and counts it
+ *   (url.clicklog.forward.dropped)
+ * - Each click keeps the time it was served, so late delivery lands in the right
+ *   statistics buckets
+ * - The queue is sent every click-log.flush-interval-ms in batches of
+ *   click-log.batch-size on the scheduler thread
+ * - A failed batch is put back and retried on the next run; a batch that times out
+ *   after url-service took it may be logged twice
+ * - The queue is drained on shutdown
+ */
+@Component
+public class ClickLogForwarder {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickLogForwarder.class);
+
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ClickLogConfig config;
+    private final WebClient webClient;
+    private final BlockingQueue<ClickEvent> queue;
+    private final Counter forwarded;
+    private final Counter dropped;
+
+    public ClickLogForwarder(ClickLogConfig config, WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.webClient = webClientBuilder.baseUrl(config.getUrl()).build();
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        Gauge.builder("url.clicklog.forward.queue", queue, BlockingQueue::size)
+                .description("Clicks waiting to be sent to url-service's click log")
+                .register(meterRegistry);
+        this.forwarded = Counter.builder("url.clicklog.forwarded")
+                .description("Clicks sent to url-service's click log")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("url.clicklog.forward.dropped")
+                .description("Clicks not sent because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue one click. Never blocks.
+     *
+     * @param clientAddress the client's IP address as text; url-service keeps only its network prefix
+     */
+    public void record(String shortUrl, String referrer, String userAgent, String clientAddress) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (!queue.offer(new ClickEvent(shortUrl, System.currentTimeMillis(), referrer, userAgent, clientAddress))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Send all queued clicks, stopping at the first failed batch.
+     */
+    @Scheduled(fixedDelayString = "${click-log.flush-interval-ms:1000}")
+    public void flush() {
+        List<ClickEvent> batch = new ArrayList<>();
+        while (queue.drainTo(batch, config.getBatchSize()) > 0) {
+            try {
+                webClient.post()
+                        .uri("/internal/clicks")
+                        .bodyValue(batch)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .block(SEND_TIMEOUT);
+            } catch (RuntimeException e) {
+                log.warn("Failed to send {} clicks to the click log, will retry: {}", batch.size(), e.getMessage());
+                requeue(batch);
+                return;
+            }
+            forwarded.increment(batch.size());
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private void requeue(List<ClickEvent> batch) {
+        for (ClickEvent click : batch) {
+            if (!queue.offer(click)) {
+                dropped.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.govindkulk.url_redirect_service.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Service;
+
+import com.govindkulk.url_redirect_service.cache.RedirectCache;
+import com.govindkulk.url_redirect_service.dto.RedirectTarget;
+import com.govindkulk.url_redirect_service.repository.RedirectTargetRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves short links without blocking: cache first, then one R2DBC query.
+ * Same rules as url-service's UrlService.getRedirectTarget: expired links are
+ * treated as missing, and clicks on tracked links are buffered for a batched write
+ * and forwarded to url-service's click log.
+ */
+@Service
+public class RedirectService {
+
+    private final RedirectTargetRepository redirectTargetRepository;
+    private final RedirectCache redirectCache;
+    private final ClickCountAggregator clickCountAggregator;
+    private final ClickLogForwarder clickLogForwarder;
+
+    public RedirectService(RedirectTargetRepository redirectTargetRepository, RedirectCache redirectCache,
+            ClickCountAggregator clickCountAggregator, ClickLogForwarder clickLogForwarder) {
+        this.redirectTargetRepository = redirectTargetRepository;
+        this.redirectCache = redirectCache;
+        this.clickCountAggregator = clickCountAggregator;
+        this.clickLogForwarder = clickLogForwarder;
+    }
+
+    /**
+     * @return the live redirect target, or empty if the link does not exist or has expired
+     */
+    public Mono<RedirectTarget> getRedirectTarget(String shortUrl) {
+        return redirectCache.get(shortUrl, redirectTargetRepository::findByShortUrl)
+                .filter(target -> !target.isExpired(LocalDateTime.now()));
+    }
+
+    public void recordClick(String shortUrl, RedirectTarget target, String referrer, String userAgent,
+            String clientAddress) {
+        if (target.redirectType().countsClicks()) {
+            clickCountAggregator.increment(shortUrl);
+            clickLogForwarder.record(shortUrl, referrer, userAgent, clientAddress);
+        }
+    }
+}
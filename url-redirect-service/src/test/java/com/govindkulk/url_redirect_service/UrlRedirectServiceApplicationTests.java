@@ -0,0 +1,13 @@
+package com.govindkulk.url_redirect_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class UrlRedirectServiceApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.govindkulk.url_redirect_service.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.govindkulk.url_redirect_service.cache.RedirectCache;
+import com.govindkulk.url_redirect_service.config.ClickLogConfig;
+import com.govindkulk.url_redirect_service.config.RedirectCacheConfig;
+import com.govindkulk.url_redirect_service.config.RedirectPolicyConfig;
+import com.govindkulk.url_redirect_service.repository.RedirectTargetRepository;
+import com.govindkulk.url_redirect_service.service.ClickCountAggregator;
+import com.govindkulk.url_redirect_service.service.ClickLogForwarder;
+import com.govindkulk.url_redirect_service.service.RedirectService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import reactor.core.publisher.Mono;
+
+class RedirectControllerTest {
+
+    private final DatabaseClient databaseClient = DatabaseClient.create(
+            ConnectionFactories.get("r2dbc:h2:mem:///redirect_controller_test;DB_CLOSE_DELAY=-1"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClickCountAggregator aggregator;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        sql("CREATE TABLE url_mapping (short_url VARCHAR(32) PRIMARY KEY, original_url VARCHAR(2048), "
+                + "expiration_date TIMESTAMP, redirect_type VARCHAR(16), click_count INT NOT NULL DEFAULT 0)");
+        RedirectCacheConfig cacheConfig = new RedirectCacheConfig();
+        cacheConfig.setEnabled(false);
+        aggregator = new ClickCountAggregator(databaseClient);
+        WebClient.Builder urlService = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.ACCEPTED).build()));
+        ClickLogForwarder forwarder = new ClickLogForwarder(new ClickLogConfig(), urlService, meterRegistry);
+        RedirectService redirectService = new RedirectService(new RedirectTargetRepository(databaseClient),
+                new RedirectCache(cacheConfig, meterRegistry), aggregator, forwarder);
+        client = WebTestClient.bindToController(new RedirectController(redirectService, new RedirectPolicyConfig()))
+                .build();
+    }
+
+    @AfterEach
+    void dropTable() {
+        sql("DROP TABLE url_mapping");
+    }
+
+    @Test
+    void trackedLinkRedirectsWithoutCachingAndCountsTheClick() {
+        insert("trk", null, null);
+
+        client.get().uri("/trk").exchange()
+                .expectStatus().isFound()
+                .expectHeader().location("https://example.com/trk")
+                .expectHeader().cacheControl(CacheControl.noStore());
+
+        aggregator.flush();
+        assertEquals(1, clickCount("trk"));
+        assertEquals(1, meterRegistry.get("url.clicklog.forward.queue").gauge().value());
+    }
+
+    @Test
+    void cacheableLinkIsCachedForTheMaxAgeAndNotCounted() {
+        insert("cch", null, "CACHEABLE");
+
+        client.get().uri("/api/urls/cch").exchange()
+                .expectStatus().isFound()
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=86400, public")
+                .expectHeader().exists(HttpHeaders.EXPIRES);
+
+        aggregator.flush();
+        assertEquals(0, clickCount("cch"));
+    }
+
+    @Test
+    void permanentLinkRedirectsWith301() {
+        insert("prm", null, "PERMANENT");
+
+        client.get().uri("/prm").exchange()
+                .expectStatus().isEqualTo(HttpStatus.MOVED_PERMANENTLY)
+                .expectHeader().location("https://example.com/prm");
+    }
+
+    @Test
+    void cacheLifetimeIsCappedAtTheLinksRemainingLifetime() {
+        insert("exp", LocalDateTime.now().plusHours(1), "CACHEABLE");
+
+        String cacheControl = client.get().uri("/exp").exchange()
+                .expectStatus().isFound()
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getCacheControl();
+
+        long maxAge = Long.parseLong(cacheControl.replaceAll("\\D+", ""));
+        assertTrue(maxAge > 3500 && maxAge <= 3600, cacheControl);
+    }
+
+    @Test
+    void expiredAndUnknownLinksAreNotFound() {
+        insert("old", LocalDateTime.now().minusMinutes(1), null);
+
+        client.get().uri("/old").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Url not found");
+        client.get().uri("/api/urls/missing").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private void insert(String shortUrl, LocalDateTime expirationDate, String redirectType) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql("INSERT INTO url_mapping (short_url, original_url, expiration_date, redirect_type) "
+                        + "VALUES ($1, $2, $3, $4)")
+                .bind(0, shortUrl)
+                .bind(1, "https://example.com/" + shortUrl);
+        spec = expirationDate == null ? spec.bindNull(2, LocalDateTime.class) : spec.bind(2, expirationDate);
+        spec = redirectType == null ? spec.bindNull(3, String.class) : spec.bind(3, redirectType);
+        spec.then().block();
+    }
+
+    private int clickCount(String shortUrl) {
+        return databaseClient.sql("SELECT click_count FROM url_mapping WHERE short_url = $1")
+                .bind(0, shortUrl)
+                .map(row -> row.get("click_count", Integer.class))
+                .one()
+                .block();
+    }
+
+    private void sql(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
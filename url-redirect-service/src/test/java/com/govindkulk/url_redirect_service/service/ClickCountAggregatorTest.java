@@ -0,0 +1,81 @@
+package com.govindkulk.url_redirect_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.spi.ConnectionFactories;
+
+class ClickCountAggregatorTest {
+
+    private final DatabaseClient databaseClient = DatabaseClient.create(
+            ConnectionFactories.get("r2dbc:h2:mem:///click_count_aggregator_test;DB_CLOSE_DELAY=-1"));
+
+    private ClickCountAggregator aggregator;
+
+    @BeforeEach
+    void createTable() {
+        sql("CREATE TABLE url_mapping (short_url VARCHAR(32) PRIMARY KEY, click_count INT NOT NULL)");
+        sql("INSERT INTO url_mapping VALUES ('abc', 0), ('def', 7)");
+        aggregator = new ClickCountAggregator(databaseClient);
+    }
+
+    @AfterEach
+    void dropTable() {
+        sql("DROP TABLE IF EXISTS url_mapping");
+        sql("DROP TABLE IF EXISTS url_mapping_moved");
+    }
+
+    @Test
+    void flushAddsBufferedClicksToTheCounts() {
+        for (int i = 0; i < 5; i++) {
+            aggregator.increment("abc");
+        }
+        aggregator.increment("def");
+        aggregator.increment("gone");
+
+        aggregator.flush();
+
+        assertEquals(5, clickCount("abc"));
+        assertEquals(8, clickCount("def"));
+    }
+
+    @Test
+    void bufferIsEmptyAfterAFlush() {
+        aggregator.increment("abc");
+        aggregator.flush();
+        aggregator.flush();
+
+        assertEquals(1, clickCount("abc"));
+    }
+
+    @Test
+    void failedFlushIsRetriedOnTheNextRun() {
+        aggregator.increment("abc");
+        aggregator.increment("abc");
+        sql("ALTER TABLE url_mapping RENAME TO url_mapping_moved");
+
+        aggregator.flush();
+
+        sql("ALTER TABLE url_mapping_moved RENAME TO url_mapping");
+        assertEquals(0, clickCount("abc"));
+        aggregator.increment("abc");
+        aggregator.flush();
+        assertEquals(3, clickCount("abc"));
+    }
+
+    private int clickCount(String shortUrl) {
+        return databaseClient.sql("SELECT click_count FROM url_mapping WHERE short_url = $1")
+                .bind(0, shortUrl)
+                .map(row -> row.get("click_count", Integer.class))
+                .one()
+                .block();
+    }
+
+    private void sql(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
@@ -0,0 +1,97 @@
+package com.govindkulk.url_redirect_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.govindkulk.url_redirect_service.config.ClickLogConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ClickLogForwarderTest {
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private HttpStatus status = HttpStatus.ACCEPTED;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void queuedClicksAreSentInBatches() {
+        ClickLogForwarder forwarder = forwarder(config(8, 2));
+        for (int i = 0; i < 5; i++) {
+            forwarder.record("c" + i, null, "Mozilla/5.0", "10.0.0.1");
+        }
+
+        forwarder.flush();
+
+        assertEquals(3, requests.size());
+        assertEquals("/internal/clicks", requests.get(0).url().getPath());
+        assertEquals(0, forwarder.queued());
+        assertEquals(5, meterRegistry.counter("url.clicklog.forwarded").count());
+    }
+
+    @Test
+    void failedBatchIsKeptAndSentOnTheNextRun() {
+        ClickLogForwarder forwarder = forwarder(config(8, 10));
+        forwarder.record("c0", null, null, null);
+        forwarder.record("c1", null, null, null);
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        forwarder.flush();
+        assertEquals(2, forwarder.queued());
+
+        status = HttpStatus.ACCEPTED;
+        forwarder.flush();
+        assertEquals(0, forwarder.queued());
+        assertEquals(2, requests.size());
+        assertEquals(2, meterRegistry.counter("url.clicklog.forwarded").count());
+    }
+
+    @Test
+    void fullQueueDropsClicks() {
+        ClickLogForwarder forwarder = forwarder(config(2, 10));
+        for (int i = 0; i < 3; i++) {
+            forwarder.record("c" + i, null, null, null);
+        }
+
+        assertEquals(2, forwarder.queued());
+        assertEquals(1, meterRegistry.counter("url.clicklog.forward.dropped").count());
+    }
+
+    @Test
+    void disabledForwarderSendsNothing() {
+        ClickLogConfig config = config(8, 10);
+        config.setEnabled(false);
+        ClickLogForwarder forwarder = forwarder(config);
+        forwarder.record("c0", null, null, null);
+
+        forwarder.flush();
+
+        assertEquals(0, forwarder.queued());
+        assertTrue(requests.isEmpty());
+    }
+
+    private ClickLogForwarder forwarder(ClickLogConfig config) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(status).build());
+        });
+        return new ClickLogForwarder(config, builder, meterRegistry);
+    }
+
+    private static ClickLogConfig config(int queueCapacity, int batchSize) {
+        ClickLogConfig config = new ClickLogConfig();
+        config.setUrl("http://url-service");
+        config.setQueueCapacity(queueCapacity);
+        config.setBatchSize(batchSize);
+        return config;
+    }
+}
@@ -0,0 +1,56 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.govindkulk.url_service.shortcode.Base62;
+import com.govindkulk.url_service.shortcode.IdScrambler;
+
+/**
+ * Base62 encoding: variable and fixed length primitive encoders, the Feistel
+ * scramble used by the sequence strategy, and the old BigInteger conversion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Base62Benchmark {
+
+    private final IdScrambler scrambler = new IdScrambler(0x5DEECE66DL);
+    private final char[] buffer = new char[Base62.MAX_LENGTH];
+    private final byte[] digest = new byte[32];
+    private long value = 0x1234_5678_9ABCL;
+
+    @Benchmark
+    public String encode() {
+        return Base62.encode(value++, 6);
+    }
+
+    @Benchmark
+    public char[] encodeFixedIntoBuffer() {
+        Base62.encodeFixed(value++, 6, buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    public String scrambleAndEncode() {
+        return Base62.encode(scrambler.scramble(value++ & ((1L << 34) - 1), 34), 6);
+    }
+
+    @Benchmark
+    public String legacyBigInteger() {
+        digest[0] = (byte) value++;
+        return LegacyShortCodes.bytesToBase62(digest, 6);
+    }
+}
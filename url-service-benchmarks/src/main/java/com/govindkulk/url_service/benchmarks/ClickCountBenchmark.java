@@ -0,0 +1,86 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.govindkulk.url_service.repository.UrlMappingRepository;
+import com.govindkulk.url_service.service.ClickCountAggregator;
+
+/**
+ * Click counting under contention (8 threads): buffering a click for one hot link
+ * and for clicks spread over 1024 links, plus the periodic batched flush of
+ * 1024 buffered counters to H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickCountBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Aggregator {
+
+        ConfigurableApplicationContext context;
+        ClickCountAggregator aggregator;
+        String[] codes;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = Fixtures.h2Context("clicks", "click-counter.flush-interval-ms=3600000");
+            context.getBean(UrlMappingRepository.class).saveAll(Fixtures.urlMappings(Fixtures.CODES));
+            aggregator = context.getBean(ClickCountAggregator.class);
+            codes = Fixtures.codes();
+        }
+
+        @TearDown(Level.Iteration)
+        public void flushBetweenIterations() {
+            aggregator.flush();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void incrementHotLink(Aggregator state) {
+        state.aggregator.increment(state.codes[0]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void incrementSpread(Aggregator state, Cursor cursor) {
+        state.aggregator.increment(state.codes[cursor.next++ & (Fixtures.CODES - 1)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void flush1024Links(Aggregator state) {
+        for (String code : state.codes) {
+            state.aggregator.increment(code);
+        }
+        state.aggregator.flush();
+    }
+}
@@ -0,0 +1,96 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.govindkulk.url_service.clicklog.ClickEventLog;
+import com.govindkulk.url_service.config.ClickLogConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * What a redirect pays to log a click: ClickEventLog.record from one thread and
+ * from 8, with the writer thread appending to a segment in a temp directory.
+ * Compare with ClickCountBenchmark's increment, which every tracked redirect
+ * already pays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickEventLogBenchmark {
+
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36";
+
+    @State(Scope.Benchmark)
+    public static class Log {
+
+        Path directory;
+        ClickEventLog log;
+        String[] codes;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("click-log-bench");
+            ClickLogConfig config = new ClickLogConfig();
+            config.setDirectory(directory.toString());
+            log = new ClickEventLog(config, new SimpleMeterRegistry());
+            log.start();
+            codes = Fixtures.codes();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            log.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                    try {
+                        Files.delete(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record(Log state, Cursor cursor) {
+        state.log.record(state.codes[cursor.next++ & (Fixtures.CODES - 1)], "https://example.com/page",
+                USER_AGENT, "203.0.113.7");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void record8Threads(Log state, Cursor cursor) {
+        state.log.record(state.codes[cursor.next++ & (Fixtures.CODES - 1)], "https://example.com/page",
+                USER_AGENT, "203.0.113.7");
+    }
+}
@@ -0,0 +1,118 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.govindkulk.url_service.UrlServiceApplication;
+import com.govindkulk.url_service.cache.RedirectCache;
+import com.govindkulk.url_service.cache.ShortUrlFilter;
+import com.govindkulk.url_service.config.LinkExpirationConfig;
+import com.govindkulk.url_service.config.RedirectCacheConfig;
+import com.govindkulk.url_service.config.RedirectPolicyConfig;
+import com.govindkulk.url_service.config.ShortUrlFilterConfig;
+import com.govindkulk.url_service.dto.RedirectTarget;
+import com.govindkulk.url_service.model.RedirectType;
+import com.govindkulk.url_service.model.UrlMapping;
+import com.govindkulk.url_service.repository.UrlMappingRepository;
+import com.govindkulk.url_service.service.UrlService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Shared setup for the benchmarks: sample data, a UrlService wired to in-memory
+ * stubs, and a full url-service context on in-memory H2.
+ *
+ * The stubs are hand-written rather than Mockito mocks: mock interception costs
+ * microseconds per call and would swamp the code being measured.
+ */
+final class Fixtures {
+
+    static final int CODES = 1024; // power of two so benchmarks can mask an index
+
+    private Fixtures() {
+    }
+
+    static String[] codes() {
+        String[] codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = String.format("b%05d", i);
+        }
+        return codes;
+    }
+
+    static List<UrlMapping> urlMappings(int count) {
+        List<UrlMapping> mappings = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            mappings.add(new UrlMapping("https://example.com/articles/" + i + "?utm_source=benchmark",
+                    String.format("b%05d", i), 42L, now, now.plusDays(7), i));
+        }
+        return mappings;
+    }
+
+    /**
+     * UrlService whose repository answers every redirect lookup from memory
+     */
+    static UrlService stubUrlService(boolean cacheEnabled) {
+        RedirectTarget target = new RedirectTarget("https://example.com/landing", LocalDateTime.now().plusDays(7), RedirectType.TRACKED);
+
+        RedirectCacheConfig cacheConfig = new RedirectCacheConfig();
+        cacheConfig.setEnabled(cacheEnabled);
+        RedirectCache cache = new RedirectCache(cacheConfig, new SimpleMeterRegistry());
+
+        return new UrlService(stubRepository(target), null, cache, null, stubFilter(true), null, new LinkExpirationConfig(), new RedirectPolicyConfig(), null);
+    }
+
+    /**
+     * Repository that finds the given target for every code and reports every code as free
+     */
+    static UrlMappingRepository stubRepository(RedirectTarget target) {
+        return (UrlMappingRepository) Proxy.newProxyInstance(Fixtures.class.getClassLoader(),
+                new Class<?>[] { UrlMappingRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findRedirectTargetByShortUrl" -> Optional.of(target);
+                    case "existsByShortUrl" -> false;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Membership filter that gives the same answer for every code
+     */
+    static ShortUrlFilter stubFilter(boolean mightContain) {
+        return new ShortUrlFilter(new ShortUrlFilterConfig(), null, null, new SimpleMeterRegistry()) {
+            @Override
+            public boolean mightContain(String shortUrl) {
+                return mightContain;
+            }
+        };
+    }
+
+    /**
+     * Full url-service application context (no web server) on a private in-memory H2 database
+     */
+    static ConfigurableApplicationContext h2Context(String name, String... properties) {
+        List<String> all = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "eureka.client.enabled=false",
+                "click-log.enabled=false"));
+        all.addAll(List.of(properties));
+        // Passed as command line arguments so they win over url-service's application.yml
+        return new SpringApplicationBuilder(UrlServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(all.stream().map(p -> "--" + p).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,45 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The short code hashing UrlShorteningService used before the FastHash/Base62 rework
+ * (SHA-256 digest, BigInteger base62 conversion, string concat of url + userId),
+ * minus its println calls. Kept only as a reference point for the benchmarks.
+ */
+final class LegacyShortCodes {
+
+    private static final String BASE62_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private LegacyShortCodes() {
+    }
+
+    static String hashBased(String originalUrl, Long userId, int length) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hashBytes = md.digest(originalUrl.concat(userId.toString()).getBytes());
+            return bytesToBase62(hashBytes, length);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hash algorithm not available", e);
+        }
+    }
+
+    static String bytesToBase62(byte[] bytes, int length) {
+        StringBuilder result = new StringBuilder();
+        BigInteger bigint = new BigInteger(1, bytes);
+        while (bigint.compareTo(BigInteger.ZERO) > 0) {
+            int index = bigint.mod(BigInteger.valueOf(62)).intValue();
+            result.append(BASE62_CHARS.charAt(index));
+            bigint = bigint.divide(BigInteger.valueOf(62));
+        }
+        while (result.length() < length) {
+            result.insert(0, '0');
+        }
+        if (result.length() > length) {
+            return result.substring(0, length);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,186 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import com.govindkulk.url_service.UrlServiceApplication;
+import com.govindkulk.url_service.dto.CreateShortUrlResponse;
+import com.govindkulk.url_service.service.UrlService;
+
+/**
+ * Redirect load test: platform threads vs virtual threads
+ *
+ * Starts url-service on H2 once per thread mode and drives GET /{shortUrl} with a
+ * fixed number of concurrent clients, then prints throughput and latency
+ * percentiles for each mode.
+ *
+ * Every redirect goes to the database (redirect cache off) and every statement is
+ * delayed by --db-latency to stand in for the round trip to Postgres, so request
+ * threads spend their time blocked on JDBC as they do in production. With a
+ * connection pool larger than Tomcat's 200 threads, platform mode is capped by the
+ * thread count while virtual mode is capped by the pool.
+ *
+ * Options (--name=value): concurrency, duration, warmup, db-latency, pool-size,
+ * links, modes (comma separated: platform,virtual).
+ */
+public class RedirectLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "concurrency", "600",
+                "duration", "20s",
+                "warmup", "5s",
+                "db-latency", "50ms",
+                "pool-size", "400",
+                "links", "1000",
+                "modes", "platform,virtual"));
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+
+        List<String> report = new ArrayList<>();
+        for (String mode : options.get("modes").split(",")) {
+            report.add(run(mode.trim(), options));
+        }
+
+        System.out.printf("%n%s%n", options);
+        System.out.printf("%-9s %10s %10s %10s %10s %10s %8s%n", "mode", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, Map<String, String> options) throws Exception {
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        Duration duration = parse(options.get("duration"));
+        Duration warmup = parse(options.get("warmup"));
+
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                UrlServiceApplication.class, SimulatedDbLatency.class)
+                .web(WebApplicationType.SERVLET)
+                .run(arguments(mode, options))) {
+
+            String[] codes = seed(context.getBean(UrlService.class), Integer.parseInt(options.get("links")));
+            String base = "http://localhost:" + context.getWebServer().getPort() + "/api/urls/";
+
+            System.out.printf("%s: warming up for %s%n", mode, warmup);
+            drive(base, codes, concurrency, warmup);
+            System.out.printf("%s: measuring for %s with %d clients%n", mode, duration, concurrency);
+            Result result = drive(base, codes, concurrency, duration);
+
+            return String.format("%-9s %10d %10.0f %10.1f %10.1f %10.1f %8d", mode, result.latencies.length,
+                    result.latencies.length / (duration.toMillis() / 1000.0),
+                    percentile(result.latencies, 0.50), percentile(result.latencies, 0.99),
+                    percentile(result.latencies, 1.0), result.errors);
+        }
+    }
+
+    private static String[] arguments(String mode, Map<String, String> options) {
+        List<String> properties = List.of(
+                "spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.hikari.maximum-pool-size=" + options.get("pool-size"),
+                "spring.datasource.hikari.connection-timeout=30000",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "eureka.client.enabled=false",
+                "server.port=0",
+                "redirect-cache.enabled=false",
+                // Redirects log clicks as in production, into a scratch directory
+                "click-log.directory=" + Path.of(System.getProperty("java.io.tmpdir"), "redirect-load-test-click-log"),
+                "load-test.db-latency=" + options.get("db-latency"));
+        // Passed as command line arguments so they win over url-service's application.yml
+        return properties.stream().map(p -> "--" + p).toArray(String[]::new);
+    }
+
+    private static String[] seed(UrlService urlService, int links) {
+        List<String> urls = new ArrayList<>(links);
+        for (int i = 0; i < links; i++) {
+            urls.add("https://example.com/load/" + i);
+        }
+        return urlService.createShortUrls(urls, 42L, null, null).getResults().stream()
+                .map(CreateShortUrlResponse::getShortUrl)
+                .toArray(String[]::new);
+    }
+
+    private static Result drive(String base, String[] codes, int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        Queue<long[]> perClient = new ConcurrentLinkedQueue<>();
+
+        try (HttpClient http = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .followRedirects(HttpClient.Redirect.NEVER)
+                        .build();
+                ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                long[][] samples = { new long[1024] };
+                int[] count = { 0 };
+                int client = c;
+                clients.submit(() -> {
+                    int next = client;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + codes[next++ % codes.length])).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 302) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count[0] == samples[0].length) {
+                            samples[0] = Arrays.copyOf(samples[0], count[0] * 2);
+                        }
+                        samples[0][count[0]++] = System.nanoTime() - start;
+                    }
+                    perClient.add(Arrays.copyOf(samples[0], count[0]));
+                });
+            }
+            // Closing the client pool (before the HttpClient) waits for every client to reach the deadline
+        }
+
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static Duration parse(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
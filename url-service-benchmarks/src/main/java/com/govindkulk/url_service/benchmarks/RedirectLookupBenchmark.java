@@ -0,0 +1,99 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.govindkulk.url_service.cache.ShortUrlFilter;
+import com.govindkulk.url_service.dto.RedirectTarget;
+import com.govindkulk.url_service.repository.UrlMappingRepository;
+import com.govindkulk.url_service.service.UrlService;
+
+/**
+ * UrlService.getRedirectTarget over 1024 existing codes, with and without the
+ * redirect cache, against an in-memory stub repository (service overhead only) and against
+ * the real JPA stack on in-memory H2. "unknownCode" measures a miss that the
+ * membership filter rejects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedirectLookupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class StubRepository {
+
+        @Param({ "true", "false" })
+        public boolean cache;
+
+        UrlService urlService;
+        String[] codes;
+
+        @Setup
+        public void setup() {
+            urlService = Fixtures.stubUrlService(cache);
+            codes = Fixtures.codes();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class H2 {
+
+        @Param({ "true", "false" })
+        public boolean cache;
+
+        ConfigurableApplicationContext context;
+        UrlService urlService;
+        String[] codes;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = Fixtures.h2Context("redirect" + cache, "redirect-cache.enabled=" + cache);
+            context.getBean(UrlMappingRepository.class).saveAll(Fixtures.urlMappings(Fixtures.CODES));
+            context.getBean(ShortUrlFilter.class).rebuild();
+            urlService = context.getBean(UrlService.class);
+            codes = Fixtures.codes();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public Optional<RedirectTarget> stubRepository(StubRepository state, Cursor cursor) {
+        return state.urlService.getRedirectTarget(state.codes[cursor.next++ & (Fixtures.CODES - 1)]);
+    }
+
+    @Benchmark
+    public Optional<RedirectTarget> h2(H2 state, Cursor cursor) {
+        return state.urlService.getRedirectTarget(state.codes[cursor.next++ & (Fixtures.CODES - 1)]);
+    }
+
+    @Benchmark
+    public Optional<RedirectTarget> h2UnknownCode(H2 state, Cursor cursor) {
+        return state.urlService.getRedirectTarget("x" + (cursor.next++ & (Fixtures.CODES - 1)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.govindkulk.url_service.config.ShortCodeConfig;
+import com.govindkulk.url_service.service.UrlShorteningService;
+import com.govindkulk.url_service.shortcode.HashShortCodeGenerator;
+
+/**
+ * Short code generation: the hash engine on its own, the pre-rework SHA-256
+ * version, and UrlShorteningService.generateShortUrl with the filter reporting
+ * every candidate as free (the common case, no repository call).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShortCodeGenerationBenchmark {
+
+    private static final String URL = "https://example.com/articles/2025/07/some-fairly-long-slug?utm_source=newsletter";
+    private static final Long USER_ID = 42L;
+
+    private UrlShorteningService urlShorteningService;
+
+    @Setup
+    public void setup() {
+        urlShorteningService = new UrlShorteningService();
+        ReflectionTestUtils.setField(urlShorteningService, "urlMappingRepository", Fixtures.stubRepository(null));
+        ReflectionTestUtils.setField(urlShorteningService, "shortUrlFilter", Fixtures.stubFilter(false));
+        ReflectionTestUtils.setField(urlShorteningService, "shortCodeConfig", new ShortCodeConfig());
+    }
+
+    @Benchmark
+    public String hashEngine() {
+        return HashShortCodeGenerator.generate(URL, USER_ID, 6);
+    }
+
+    @Benchmark
+    public String legacySha256BigInteger() {
+        return LegacyShortCodes.hashBased(URL, USER_ID, 6);
+    }
+
+    @Benchmark
+    public String generateShortUrl() {
+        return urlShorteningService.generateShortUrl(URL, USER_ID);
+    }
+}
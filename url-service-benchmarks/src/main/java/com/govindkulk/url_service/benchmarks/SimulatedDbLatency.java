@@ -0,0 +1,69 @@
+package com.govindkulk.url_service.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Adds a fixed delay before every statement execution, standing in for the network
+ * round trip to a real database. The connection stays checked out during the delay,
+ * exactly as it would while waiting on Postgres.
+ *
+ * Active when load-test.db-latency is set to a positive duration.
+ */
+@Configuration(proxyBeanMethods = false)
+class SimulatedDbLatency {
+
+    @Bean
+    static BeanPostProcessor simulatedDbLatencyPostProcessor(Environment environment) {
+        Duration latency = environment.getProperty("load-test.db-latency", Duration.class, Duration.ZERO);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && latency.isPositive()) {
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return delayed(Connection.class, super.getConnection(), latency);
+                        }
+                    };
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static <T> T delayed(Class<T> type, T target, Duration latency) {
+        return type.cast(Proxy.newProxyInstance(SimulatedDbLatency.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        Thread.sleep(latency);
+                    }
+                    try {
+                        Object result = method.invoke(target, args);
+                        if (result instanceof PreparedStatement statement) {
+                            return delayed(PreparedStatement.class, statement, latency);
+                        }
+                        if (result instanceof Statement statement) {
+                            return delayed(Statement.class, statement, latency);
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,110 @@
+package com.govindkulk.url_service.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.govindkulk.url_service.shortcode.FastHash;
+
+/**
+ * Counting Bloom Filter
+ *
+ * Probabilistic set of strings that supports removal. Each slot is a 4-bit
+ * counter packed sixteen to a long, updated with CAS so reads and writes are
+ * lock-free.
+ *
+ * Guarantees:
+ * - mightContain never returns false for a key that was added and not removed
+ * - A counter that reaches 15 saturates and is never decremented again, which can
+ *   only produce extra false positives
+ * - Removing a key that was never added corrupts the filter, so callers must only
+ *   remove keys they know were added
+ */
+public class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final long HASH_SEED = 0x2545F4914F6CDD1DL;
+
+    private final AtomicLongArray words;
+    private final int numCounters;
+    private final int numHashes;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (ln2 * ln2));
+        this.numCounters = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(COUNTERS_PER_WORD, m));
+        this.numHashes = Math.max(1, (int) Math.round((double) numCounters / n * ln2));
+        this.words = new AtomicLongArray((numCounters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    public void add(CharSequence key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            increment(index(h1 + i * h2));
+        }
+    }
+
+    public void remove(CharSequence key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            decrement(index(h1 + i * h2));
+        }
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            if (counter(index(h1 + i * h2)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % numCounters;
+    }
+
+    private long counter(int index) {
+        return (words.get(index / COUNTERS_PER_WORD) >>> shift(index)) & COUNTER_MASK;
+    }
+
+    private void increment(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        long current;
+        do {
+            current = words.get(word);
+            if (((current >>> shift) & COUNTER_MASK) == COUNTER_MASK) {
+                return; // saturated
+            }
+        } while (!words.compareAndSet(word, current, current + (1L << shift)));
+    }
+
+    private void decrement(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        long current;
+        do {
+            current = words.get(word);
+            long value = (current >>> shift) & COUNTER_MASK;
+            if (value == 0 || value == COUNTER_MASK) {
+                return; // empty or saturated
+            }
+        } while (!words.compareAndSet(word, current, current - (1L << shift)));
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    private static long hash64(CharSequence key) {
+        return FastHash.hash64(key, HASH_SEED);
+    }
+}
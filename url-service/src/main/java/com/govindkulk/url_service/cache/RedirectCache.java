@@ -0,0 +1,78 @@
+package com.govindkulk.url_service.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.govindkulk.url_service.config.RedirectCacheConfig;
+import com.govindkulk.url_service.dto.RedirectTarget;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Redirect Cache
+ *
+ * Bounded read-through cache of shortUrl -> {@link RedirectTarget} sitting in front of the
+ * database for the redirect endpoint.
+ *
+ * Key Features:
+ * - Caffeine's W-TinyLFU admission keeps the most frequently clicked links resident,
+ *   so a burst of one-off lookups cannot flush the popular ones out
+ * - Size and TTL come from {@link RedirectCacheConfig}; an entry never outlives its
+ *   link, so the TTL is capped at the link's remaining lifetime
+ * - Hit/miss/eviction counters are published as "cache.*" metrics under the name "redirects"
+ */
+@Component
+public class RedirectCache {
+
+    public static final String CACHE_NAME = "redirects";
+
+    private final Cache<String, RedirectTarget> cache;
+    private final boolean enabled;
+
+    public RedirectCache(RedirectCacheConfig config, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        Duration ttl = config.getTtl();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(Expiry.creating((String shortUrl, RedirectTarget target) -> ttlFor(target, ttl)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached redirect target, loading it with the given function on a miss.
+     * Exceptions thrown by the loader propagate and nothing is cached.
+     */
+    public RedirectTarget get(String shortUrl, Function<String, RedirectTarget> loader) {
+        // When disabled, skip Caffeine entirely: a zero-size cache still pays for insert + evict
+        return enabled ? cache.get(shortUrl, loader) : loader.apply(shortUrl);
+    }
+
+    private static Duration ttlFor(RedirectTarget target, Duration ttl) {
+        if (target.expirationDate() == null) {
+            return ttl;
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), target.expirationDate());
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(ttl) < 0 ? remaining : ttl;
+    }
+
+    public void invalidate(String shortUrl) {
+        cache.invalidate(shortUrl);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
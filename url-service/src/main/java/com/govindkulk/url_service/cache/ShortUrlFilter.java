@@ -0,0 +1,243 @@
+package com.govindkulk.url_service.cache;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.govindkulk.url_service.config.ShortUrlFilterConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Short URL Filter
+ *
+ * In-memory membership filter over every short_url in url_mapping, used to answer
+ * "this code does not exist" without a database query.
+ *
+ * Lifecycle:
+ * - Built from the table once the application is ready; until then every code
+ *   is reported as possibly present
+ * - Updated by UrlService after a create or delete commits
+ * - Rows created by other instances are picked up by a periodic sync on created_at
+ * - Rebuilt from scratch periodically to clear stale entries left by deletes on
+ *   other instances and by saturated counters
+ *
+ * The filter may say "maybe present" for a missing code (the caller then asks the
+ * database), but never "absent" for a code whose row is committed and synced.
+ * Rows created on other instances since the last sync may still be reported
+ * absent; {@link #mightResolve(String)} catches up with them before answering
+ * absent, at most once per miss-sync-interval however many codes miss.
+ */
+@Component
+public class ShortUrlFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortUrlFilter.class);
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final ShortUrlFilterConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter negatives;
+
+    // Null until the first load completes
+    private volatile CountingBloomFilter current;
+    // Non-null only while a rebuild is scanning the table; receives adds too
+    private volatile CountingBloomFilter building;
+    // Codes already added to the filter recently, so the overlapping sync does not count them twice
+    private final Map<String, LocalDateTime> recentlyAdded = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync;
+    // System.nanoTime() of the last catch-up sync started by a miss
+    private volatile long lastMissSync = System.nanoTime();
+    // Serializes rebuild and sync. A lock rather than synchronized: both run JDBC while
+    // holding it, which would pin the carrier thread when scheduled on a virtual thread
+    private final ReentrantLock scanLock = new ReentrantLock();
+
+    public ShortUrlFilter(ShortUrlFilterConfig config, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.negatives = Counter.builder("url.filter.negatives")
+                .description("Lookups the filter answered as definitely absent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false only if the short URL is definitely not in the table
+     */
+    public boolean mightContain(String shortUrl) {
+        CountingBloomFilter filter = current;
+        if (!config.isEnabled() || filter == null || filter.mightContain(shortUrl)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Membership check for the redirect path, where a false "absent" means a 404
+     * for a link that exists. A negative first syncs the rows created since the
+     * last sync, unless one ran within miss-sync-interval or is already running,
+     * so unknown codes cost at most one incremental scan per interval in total
+     * rather than a query each.
+     * @return false only if the short URL is definitely not in the table
+     */
+    public boolean mightResolve(String shortUrl) {
+        CountingBloomFilter filter = current;
+        if (!config.isEnabled() || filter == null || filter.mightContain(shortUrl)) {
+            return true;
+        }
+        if (catchUp() && current.mightContain(shortUrl)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    private boolean catchUp() {
+        long now = System.nanoTime();
+        if (now - lastMissSync < config.getMissSyncInterval().toNanos() || !scanLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (now - lastMissSync < config.getMissSyncInterval().toNanos()) {
+                return false;
+            }
+            lastMissSync = now;
+            syncLocked();
+            return true;
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    /**
+     * Record a short URL whose row has been committed.
+     */
+    public void add(String shortUrl) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        // Read building before current: if building is still null the rebuild scan
+        // has not started and will see the committed row itself
+        CountingBloomFilter next = building;
+        CountingBloomFilter filter = current;
+        // Nothing to add to before the first load, which scans the row anyway; tracking
+        // it here would leak, since only a sync of a loaded filter prunes recentlyAdded
+        if (next == null && filter == null) {
+            return;
+        }
+        if (recentlyAdded.putIfAbsent(shortUrl, LocalDateTime.now()) != null) {
+            return;
+        }
+        if (next != null) {
+            next.add(shortUrl);
+        }
+        if (filter != null) {
+            filter.add(shortUrl);
+        }
+    }
+
+    /**
+     * Forget a short URL whose row deletion has been committed.
+     */
+    public void remove(String shortUrl) {
+        recentlyAdded.remove(shortUrl);
+        CountingBloomFilter filter = current;
+        // Removing a key that was never added (e.g. not yet synced from another
+        // instance) would corrupt other keys' counters, so only remove known keys.
+        // A rebuild in progress simply keeps the key as a stale positive.
+        if (filter != null && filter.mightContain(shortUrl)) {
+            filter.remove(shortUrl);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (config.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${short-url-filter.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${short-url-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        scanLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        CountingBloomFilter next = new CountingBloomFilter(
+                config.getExpectedInsertions(), config.getFalsePositiveProbability());
+        building = next;
+        try {
+            int[] rows = { 0 };
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT short_url FROM url_mapping");
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                next.add(rs.getString(1));
+                rows[0]++;
+            }));
+            current = next;
+            lastSync = startedAt;
+            log.info("Short URL filter rebuilt with {} codes", rows[0]);
+        } catch (RuntimeException e) {
+            log.warn("Short URL filter rebuild failed, keeping previous filter: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${short-url-filter.sync-interval-ms:5000}")
+    public void sync() {
+        if (!config.isEnabled() || current == null) {
+            return;
+        }
+        scanLock.lock();
+        try {
+            syncLocked();
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    private void syncLocked() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = lastSync.minus(config.getSyncOverlap());
+        try {
+            jdbcTemplate.query("SELECT short_url FROM url_mapping WHERE created_at >= ?",
+                    rs -> {
+                        add(rs.getString(1));
+                    },
+                    Timestamp.valueOf(since));
+            lastSync = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Short URL filter sync failed: {}", e.getMessage());
+        }
+        recentlyAdded.values().removeIf(addedAt -> addedAt.isBefore(since));
+    }
+}
@@ -0,0 +1,12 @@
+package com.govindkulk.url_service.clicklog;
+
+/**
+ * One click read back from the click log.
+ *
+ * @param position     where the record sits in the log; increasing, unique per record
+ * @param referrerHash FastHash of the referring host, 0 when there was no Referer
+ * @param ipPrefix     the client's /24 (IPv4) or /48 (IPv6) network, see {@link ClickRecord#ipPrefix}
+ */
+public record ClickEvent(long position, String shortUrl, long timestamp, long referrerHash,
+        UserAgentClass userAgentClass, long ipPrefix) {
+}
@@ -0,0 +1,20 @@
+package com.govindkulk.url_service.clicklog;
+
+import java.util.List;
+
+/**
+ * Receives clicks read back from the click log by {@link ClickLogConsumer}.
+ *
+ * Delivery is at-least-once and in log order: after a crash or a failed batch the
+ * consumer resumes from its last checkpoint, so a listener that must not count a
+ * click twice should skip events whose {@link ClickEvent#position()} it has already
+ * seen.
+ */
+public interface ClickEventListener {
+
+    /**
+     * Called on the consumer's scheduler thread; throwing makes the consumer retry
+     * the batch on its next run.
+     */
+    void onClicks(List<ClickEvent> clicks);
+}
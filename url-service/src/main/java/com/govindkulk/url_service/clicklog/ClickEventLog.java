@@ -0,0 +1,277 @@
+package com.govindkulk.url_service.clicklog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.url_service.config.ClickLogConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Click Event Log
+ *
+ * Append-only log of every counted click, for analytics that would otherwise need
+ * a database write per redirect.
+ *
+ * Key Features:
+ * - record() only puts the raw request fields in a {@link ClickRingBuffer}: one
+ *   CAS and a few array stores on the request thread, never I/O or blocking; a
+ *   full buffer drops the click and counts it (url.clicklog.dropped)
+ * - A single writer thread classifies and hashes the fields and appends 64-byte
+ *   {@link ClickRecord}s to memory-mapped segment files, rotating to a new segment
+ *   when one fills up
+ * - Records reach the page cache as they are written, so they survive a process
+ *   crash; segments are also forced to disk every click-log.force-interval-ms
+ * - On startup the newest segment is scanned for the last record with a valid
+ *   checksum and writing resumes after it, clearing any torn record
+ * - Positions (segment id in the high 32 bits, record index in the low 32) grow
+ *   monotonically; {@link #committed()} is the position up to which records are
+ *   complete, which is how far {@link ClickLogConsumer} reads
+ * - A random id, created with the directory, tells logs of different instances
+ *   apart for consumers that record positions outside it
+ */
+@Component
+public class ClickEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickEventLog.class);
+
+    private static final int DRAIN_BATCH = 4096;
+    private static final int USER_AGENT_CACHE_SIZE = 256;
+    private static final String ID_FILE = "log.id";
+    private static final long MIN_IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ClickLogConfig config;
+    private final Path directory;
+    private final ClickRingBuffer ring;
+    private final Counter appended;
+    private final Counter dropped;
+
+    // Writer thread only, after start()
+    private final CRC32C crc = new CRC32C();
+    private ClickLogSegment segment;
+    private int nextIndex;
+    private boolean unforced;
+    private long lastForce;
+    // Traffic repeats a few User-Agent strings; classifying one costs ~10x the lookup
+    private final String[] userAgents = new String[USER_AGENT_CACHE_SIZE];
+    private final UserAgentClass[] userAgentClasses = new UserAgentClass[USER_AGENT_CACHE_SIZE];
+
+    private volatile String id;
+    private volatile long committed;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ClickEventLog(ClickLogConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.directory = Path.of(config.getDirectory());
+        this.ring = new ClickRingBuffer(config.getRingCapacity());
+        Gauge.builder("url.clicklog.ring.depth", ring, ClickRingBuffer::size)
+                .description("Clicks waiting for the click log writer")
+                .register(meterRegistry);
+        this.appended = Counter.builder("url.clicklog.appended")
+                .description("Clicks written to the click log")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("url.clicklog.dropped")
+                .description("Clicks not logged because the ring buffer was full or the record was invalid")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Log one click. Never blocks and never touches the disk.
+     *
+     * @param clientAddress the client's IP address as text; only its network prefix is kept
+     */
+    public void record(String shortUrl, String referrer, String userAgent, String clientAddress) {
+        record(shortUrl, System.currentTimeMillis(), referrer, userAgent, clientAddress);
+    }
+
+    /**
+     * Log one click that happened at the given time, e.g. one served by url-redirect-service.
+     */
+    public void record(String shortUrl, long timestamp, String referrer, String userAgent, String clientAddress) {
+        if (!running) {
+            return;
+        }
+        if (!ring.offer(shortUrl, timestamp, referrer, userAgent, clientAddress)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return the position just past the last complete record
+     */
+    public long committed() {
+        return committed;
+    }
+
+    /**
+     * @return the id of this log, null if it was never opened
+     */
+    public String id() {
+        return id;
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    static long position(long segmentId, int index) {
+        return segmentId << 32 | index;
+    }
+
+    static long segmentOf(long position) {
+        return position >>> 32;
+    }
+
+    static int indexOf(long position) {
+        return (int) position;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            log.error("Click log disabled, cannot open {}: {}", directory, e.getMessage());
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("click-log-writer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        id = readOrCreateId();
+        List<Long> ids = ClickLogSegment.list(directory);
+        long newest = ids.isEmpty() ? 1 : ids.get(ids.size() - 1);
+        segment = ClickLogSegment.openForWriting(directory, newest, config.getSegmentRecords());
+        int index = 0;
+        while (index < segment.capacity && ClickRecord.isValid(segment.buffer, index * ClickRecord.SIZE, crc)) {
+            index++;
+        }
+        // Clear a torn record (and anything after it) so the next recovery stops at our records
+        for (int i = index; i < segment.capacity && !ClickRecord.isEmpty(segment.buffer, i * ClickRecord.SIZE); i++) {
+            ClickRecord.clear(segment.buffer, i * ClickRecord.SIZE);
+        }
+        nextIndex = index;
+        committed = position(segment.id, nextIndex);
+        lastForce = System.currentTimeMillis();
+        log.info("Click log resuming at segment {} record {}", segment.id, nextIndex);
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path path = directory.resolve(ID_FILE);
+        if (Files.exists(path)) {
+            return Files.readString(path).trim();
+        }
+        String created = UUID.randomUUID().toString();
+        Path temp = directory.resolve(ID_FILE + ".tmp");
+        Files.writeString(temp, created);
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return created;
+    }
+
+    private void run() {
+        long idle = MIN_IDLE_NANOS;
+        try {
+            while (true) {
+                int drained = ring.drain(this::write, DRAIN_BATCH);
+                if (drained > 0) {
+                    committed = position(segment.id, nextIndex);
+                    idle = MIN_IDLE_NANOS;
+                }
+                if (unforced && System.currentTimeMillis() - lastForce >= config.getForceIntervalMs()) {
+                    force();
+                }
+                if (drained == 0) {
+                    if (!running) {
+                        break;
+                    }
+                    LockSupport.parkNanos(idle);
+                    idle = Math.min(idle * 2, MAX_IDLE_NANOS);
+                }
+            }
+            force();
+            segment.close();
+        } catch (IOException | RuntimeException e) {
+            running = false;
+            log.error("Click log writer stopped, clicks are no longer logged: {}", e.getMessage(), e);
+        }
+    }
+
+    private void write(String shortUrl, long timestamp, String referrer, String userAgent, String clientAddress) {
+        if (nextIndex == segment.capacity) {
+            rotate();
+        }
+        if (ClickRecord.write(segment.buffer, nextIndex * ClickRecord.SIZE, shortUrl, timestamp,
+                ClickRecord.referrerHash(referrer), classify(userAgent),
+                ClickRecord.ipPrefix(clientAddress), crc)) {
+            nextIndex++;
+            unforced = true;
+            appended.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private UserAgentClass classify(String userAgent) {
+        if (userAgent == null) {
+            return UserAgentClass.UNKNOWN;
+        }
+        int slot = userAgent.hashCode() & (USER_AGENT_CACHE_SIZE - 1);
+        if (!userAgent.equals(userAgents[slot])) {
+            userAgents[slot] = userAgent;
+            userAgentClasses[slot] = UserAgentClass.classify(userAgent);
+        }
+        return userAgentClasses[slot];
+    }
+
+    private void rotate() {
+        try {
+            segment.force();
+            segment.close();
+            segment = ClickLogSegment.openForWriting(directory, segment.id + 1, config.getSegmentRecords());
+            nextIndex = 0;
+            committed = position(segment.id, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void force() {
+        segment.force();
+        unforced = false;
+        lastForce = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,202 @@
+package com.govindkulk.url_service.clicklog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.url_service.config.ClickLogConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Click Log Consumer
+ *
+ * Background reader of the click log that hands recorded clicks to every
+ * {@link ClickEventListener} bean.
+ *
+ * Key Features:
+ * - Reads only up to {@link ClickEventLog#committed()}, from read-only mappings of
+ *   the segments, in batches of up to 8192 clicks
+ * - Keeps its position in a checkpoint file next to the segments, replaced
+ *   atomically after each delivered batch; after a restart it replays from there
+ * - A listener that throws stops the run without moving the checkpoint, so the
+ *   batch is delivered again next time (at-least-once)
+ * - Records that fail their checksum are skipped rather than delivered
+ * - Deletes segments once they are more than click-log.retain-segments behind the
+ *   checkpoint
+ */
+@Component
+public class ClickLogConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickLogConsumer.class);
+
+    private static final int BATCH_SIZE = 8192;
+    private static final String CHECKPOINT = "consumer.checkpoint";
+
+    private final ClickEventLog clickEventLog;
+    private final List<ClickEventListener> listeners;
+    private final ClickLogConfig config;
+    private final Counter consumed;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+
+    private ClickLogSegment segment; // guarded by lock
+    private long checkpoint = -1;    // guarded by lock; -1 until read from disk
+
+    public ClickLogConsumer(ClickEventLog clickEventLog, List<ClickEventListener> listeners,
+            ClickLogConfig config, MeterRegistry meterRegistry) {
+        this.clickEventLog = clickEventLog;
+        this.listeners = listeners;
+        this.config = config;
+        this.consumed = Counter.builder("url.clicklog.consumed")
+                .description("Clicks delivered to click event listeners")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deliver everything committed since the last run
+     *
+     * @return the number of clicks delivered
+     */
+    @Scheduled(fixedDelayString = "${click-log.consume-interval-ms:1000}")
+    public int consume() {
+        if (!config.isEnabled()) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            return consumeLocked();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Click log consumer stopped at {}: {}", checkpoint, e.getMessage());
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        consume();
+        lock.lock();
+        try {
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int consumeLocked() throws IOException {
+        long committed = clickEventLog.committed();
+        if (committed == 0) {
+            return 0; // the log could not be opened
+        }
+        if (checkpoint < 0) {
+            checkpoint = readCheckpoint();
+        }
+        if (checkpoint > committed) {
+            // The log was wiped or replaced; start over from what it has now
+            log.warn("Click log checkpoint {} is past the end of the log {}, resetting", checkpoint, committed);
+            checkpoint = committed;
+            writeCheckpoint();
+        }
+        long previousSegment = ClickEventLog.segmentOf(checkpoint);
+        int delivered = 0;
+        List<ClickEvent> batch = new ArrayList<>();
+        while (checkpoint < committed) {
+            long position = read(batch, committed);
+            if (!batch.isEmpty()) {
+                for (ClickEventListener listener : listeners) {
+                    listener.onClicks(batch);
+                }
+                consumed.increment(batch.size());
+                delivered += batch.size();
+                batch.clear();
+            }
+            checkpoint = position;
+            writeCheckpoint();
+        }
+        if (ClickEventLog.segmentOf(checkpoint) != previousSegment) {
+            deleteOldSegments();
+        }
+        return delivered;
+    }
+
+    /**
+     * Read up to a batch of valid clicks starting at the checkpoint
+     *
+     * @return the position after the last record read
+     */
+    private long read(List<ClickEvent> batch, long committed) throws IOException {
+        long segmentId = ClickEventLog.segmentOf(checkpoint);
+        int index = ClickEventLog.indexOf(checkpoint);
+        if (segment == null || segment.id != segmentId) {
+            closeSegment();
+            segment = ClickLogSegment.openForReading(clickEventLog.directory(), segmentId);
+        }
+        if (segment == null || index >= segment.capacity) {
+            // Missing (deleted or never written) or finished: move on to the next segment
+            closeSegment();
+            return ClickEventLog.position(segmentId + 1, 0);
+        }
+        int end = segmentId == ClickEventLog.segmentOf(committed)
+                ? ClickEventLog.indexOf(committed)
+                : segment.capacity;
+        end = Math.min(end, index + BATCH_SIZE);
+        ByteBuffer buffer = segment.buffer;
+        for (int i = index; i < end; i++) {
+            int offset = i * ClickRecord.SIZE;
+            if (ClickRecord.isValid(buffer, offset, crc)) {
+                batch.add(ClickRecord.read(buffer, offset, ClickEventLog.position(segmentId, i)));
+            }
+        }
+        return ClickEventLog.position(segmentId, end);
+    }
+
+    private void deleteOldSegments() throws IOException {
+        long keepFrom = ClickEventLog.segmentOf(checkpoint) - config.getRetainSegments();
+        for (long id : ClickLogSegment.list(clickEventLog.directory())) {
+            if (id >= keepFrom) {
+                break;
+            }
+            Files.deleteIfExists(ClickLogSegment.path(clickEventLog.directory(), id));
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = clickEventLog.directory().resolve(CHECKPOINT);
+        if (!Files.exists(path)) {
+            // Nothing consumed yet: start at the oldest segment still on disk
+            List<Long> ids = ClickLogSegment.list(clickEventLog.directory());
+            return ClickEventLog.position(ids.isEmpty() ? 1 : ids.get(0), 0);
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(path)).getLong();
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Path path = clickEventLog.directory().resolve(CHECKPOINT);
+        Path temp = path.resolveSibling(CHECKPOINT + ".tmp");
+        Files.write(temp, ByteBuffer.allocate(Long.BYTES).putLong(checkpoint).array());
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.govindkulk.url_service.clicklog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * One memory-mapped click log file, named after its id (00000000000000000001.clicks)
+ * and holding a fixed number of {@link ClickRecord}s.
+ *
+ * A new segment is created at its full size; the file system keeps the unwritten
+ * part sparse. An existing segment keeps the size it was created with.
+ */
+final class ClickLogSegment implements Closeable {
+
+    private static final Pattern NAME = Pattern.compile("(\\d{20})\\.clicks");
+
+    final long id;
+    final int capacity;
+    final MappedByteBuffer buffer;
+    private final FileChannel channel;
+
+    private ClickLogSegment(long id, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * @param capacity records in the segment if it has to be created
+     */
+    static ClickLogSegment openForWriting(Path directory, long id, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path(directory, id),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            int records = size >= ClickRecord.SIZE ? (int) (size / ClickRecord.SIZE) : capacity;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * ClickRecord.SIZE);
+            return new ClickLogSegment(id, records, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the segment, or null if its file does not exist
+     */
+    static ClickLogSegment openForReading(Path directory, long id) throws IOException {
+        Path path = path(directory, id);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            int records = (int) (channel.size() / ClickRecord.SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) records * ClickRecord.SIZE);
+            return new ClickLogSegment(id, records, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the ids of the segments in the directory, in ascending order
+     */
+    static List<Long> list(Path directory) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return ids;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    static Path path(Path directory, long id) {
+        return directory.resolve(String.format("%020d.clicks", id));
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
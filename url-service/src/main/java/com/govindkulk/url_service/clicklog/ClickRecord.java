@@ -0,0 +1,223 @@
+package com.govindkulk.url_service.clicklog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+import com.govindkulk.url_service.shortcode.FastHash;
+
+/**
+ * Click Record
+ *
+ * Binary layout of one click in a log segment: 64 bytes, fixed size so the n-th
+ * record of a segment is at n * 64.
+ *
+ * <pre>
+ *  0  int   CRC32C of bytes 4..63, written last; an unwritten slot is all zeros and fails it
+ *  4  byte  UserAgentClass ordinal
+ *  5  byte  short code length (1..32)
+ *  6  short reserved, 0
+ *  8  long  timestamp, epoch millis
+ * 16  long  referrer host hash
+ * 24  long  client IP prefix
+ * 32  32 bytes short code, ASCII, zero padded
+ * </pre>
+ */
+final class ClickRecord {
+
+    static final int SIZE = 64;
+    static final int MAX_CODE_LENGTH = 32;
+
+    private static final int CHECKSUM = 0;
+    private static final int USER_AGENT = 4;
+    private static final int CODE_LENGTH = 5;
+    private static final int TIMESTAMP = 8;
+    private static final int REFERRER = 16;
+    private static final int IP_PREFIX = 24;
+    private static final int CODE = 32;
+
+    private static final long REFERRER_SEED = 0x5DEECE66DL;
+    private static final long IPV4 = 4L << 56;
+    private static final long IPV6 = 6L << 56;
+
+    private ClickRecord() {
+    }
+
+    /**
+     * @return false if the short code cannot be stored (too long or not ASCII)
+     */
+    static boolean write(ByteBuffer buffer, int offset, String shortUrl, long timestamp, long referrerHash,
+            UserAgentClass userAgentClass, long ipPrefix, CRC32C crc) {
+        int length = shortUrl.length();
+        if (length == 0 || length > MAX_CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = shortUrl.charAt(i);
+            if (c > 0x7F) {
+                return false;
+            }
+            buffer.put(offset + CODE + i, (byte) c);
+        }
+        for (int i = length; i < MAX_CODE_LENGTH; i++) {
+            buffer.put(offset + CODE + i, (byte) 0);
+        }
+        buffer.put(offset + USER_AGENT, (byte) userAgentClass.ordinal());
+        buffer.put(offset + CODE_LENGTH, (byte) length);
+        buffer.putShort(offset + 6, (short) 0);
+        buffer.putLong(offset + TIMESTAMP, timestamp);
+        buffer.putLong(offset + REFERRER, referrerHash);
+        buffer.putLong(offset + IP_PREFIX, ipPrefix);
+        buffer.putInt(offset + CHECKSUM, checksum(buffer, offset, crc));
+        return true;
+    }
+
+    static boolean isValid(ByteBuffer buffer, int offset, CRC32C crc) {
+        int length = buffer.get(offset + CODE_LENGTH);
+        return length > 0 && length <= MAX_CODE_LENGTH
+                && buffer.getInt(offset + CHECKSUM) == checksum(buffer, offset, crc);
+    }
+
+    static boolean isEmpty(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + CHECKSUM) == 0 && buffer.get(offset + CODE_LENGTH) == 0;
+    }
+
+    static ClickEvent read(ByteBuffer buffer, int offset, long position) {
+        int length = buffer.get(offset + CODE_LENGTH);
+        byte[] code = new byte[length];
+        buffer.get(offset + CODE, code);
+        return new ClickEvent(position, new String(code, StandardCharsets.US_ASCII),
+                buffer.getLong(offset + TIMESTAMP), buffer.getLong(offset + REFERRER),
+                UserAgentClass.fromOrdinal(buffer.get(offset + USER_AGENT)), buffer.getLong(offset + IP_PREFIX));
+    }
+
+    static void clear(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0L);
+        }
+    }
+
+    /**
+     * Hash of the referring host, so clicks can be grouped by site without storing URLs
+     */
+    static long referrerHash(String referrer) {
+        if (referrer == null || referrer.isEmpty()) {
+            return 0;
+        }
+        int start = referrer.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = start;
+        while (end < referrer.length()) {
+            char c = referrer.charAt(end);
+            if (c == '/' || c == ':' || c == '?' || c == '#') {
+                break;
+            }
+            end++;
+        }
+        return FastHash.hash64(referrer.substring(start, end).toLowerCase(), REFERRER_SEED);
+    }
+
+    /**
+     * The client's network rather than its address: the top byte is the IP version,
+     * then the first 24 bits of an IPv4 address or the first 48 bits of an IPv6 one.
+     * An IPv4-mapped IPv6 address (::ffff:a.b.c.d) counts as the IPv4 address it maps.
+     * 0 when the address is missing or not a literal.
+     */
+    static long ipPrefix(String address) {
+        if (address == null || address.isEmpty()) {
+            return 0;
+        }
+        if (address.indexOf(':') < 0) {
+            long value = ipv4(address);
+            return value < 0 ? 0 : IPV4 | (value >>> 8);
+        }
+        return ipv6Prefix(address);
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, -1 if it is not a dotted quad
+     */
+    private static long ipv4(String address) {
+        long value = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i <= address.length(); i++) {
+            char c = i < address.length() ? address.charAt(i) : '.';
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 4) {
+                value = value << 8 | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? value : -1;
+    }
+
+    private static long ipv6Prefix(String address) {
+        int zone = address.indexOf('%');
+        if (zone >= 0) {
+            address = address.substring(0, zone);
+        }
+        if (address.startsWith("[") && address.endsWith("]")) {
+            address = address.substring(1, address.length() - 1);
+        }
+        int last = address.lastIndexOf(':');
+        if (address.indexOf('.', last) >= 0) {
+            // A dotted quad is the last two groups
+            long value = ipv4(address.substring(last + 1));
+            if (value < 0) {
+                return 0;
+            }
+            address = address.substring(0, last + 1) + Long.toHexString(value >>> 16) + ":" + Long.toHexString(value & 0xFFFF);
+        }
+        String[] halves = address.split("::", -1);
+        if (halves.length > 2) {
+            return 0;
+        }
+        String[] head = groups(halves[0]);
+        String[] tail = halves.length == 2 ? groups(halves[1]) : new String[0];
+        int zeros = halves.length == 2 ? 8 - head.length - tail.length : 0;
+        if (zeros < 0 || (halves.length == 1 && head.length != 8)) {
+            return 0;
+        }
+        // "::" stands for the missing zero groups
+        int[] groups = new int[8];
+        for (int group = 0; group < 8; group++) {
+            String text = group < head.length ? head[group]
+                    : group < head.length + zeros ? "0"
+                    : tail[group - head.length - zeros];
+            if (text.isEmpty() || text.length() > 4) {
+                return 0;
+            }
+            try {
+                groups[group] = Integer.parseInt(text, 16);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+            if (groups[group] < 0) {
+                return 0;
+            }
+        }
+        if (groups[0] == 0 && groups[1] == 0 && groups[2] == 0 && groups[3] == 0 && groups[4] == 0
+                && groups[5] == 0xFFFF) {
+            return IPV4 | ((long) groups[6] << 8 | groups[7] >>> 8);
+        }
+        return IPV6 | ((long) groups[0] << 32 | (long) groups[1] << 16 | groups[2]);
+    }
+
+    private static String[] groups(String part) {
+        return part.isEmpty() ? new String[0] : part.split(":");
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, CRC32C crc) {
+        crc.reset();
+        crc.update(buffer.slice(offset + USER_AGENT, SIZE - USER_AGENT));
+        return (int) crc.getValue();
+    }
+}
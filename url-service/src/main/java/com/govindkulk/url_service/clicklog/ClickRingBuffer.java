@@ -0,0 +1,112 @@
+package com.govindkulk.url_service.clicklog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Click Ring Buffer
+ *
+ * Bounded lock-free hand-off from request threads (many producers) to the click
+ * log writer (one consumer), after Dmitry Vyukov's bounded MPMC queue.
+ *
+ * Each slot has a sequence number: a producer claims the slot whose sequence equals
+ * its ticket with one CAS on the tail, fills the slot's fields and publishes it by
+ * advancing the sequence; the consumer takes slots in order once published and
+ * hands them back by advancing the sequence one lap. Fields live in parallel arrays
+ * allocated up front, so offering a click allocates nothing.
+ *
+ * A full buffer rejects the click instead of blocking the request.
+ */
+final class ClickRingBuffer {
+
+    /**
+     * Receives the fields of each drained click, on the consumer thread
+     */
+    interface Handler {
+        void handle(String shortUrl, long timestamp, String referrer, String userAgent, String clientAddress);
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final String[] shortUrls;
+    private final long[] timestamps;
+    private final String[] referrers;
+    private final String[] userAgents;
+    private final String[] clientAddresses;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer thread only
+    private volatile long published; // head as of the last drain, for size()
+
+    ClickRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.shortUrls = new String[size];
+        this.timestamps = new long[size];
+        this.referrers = new String[size];
+        this.userAgents = new String[size];
+        this.clientAddresses = new String[size];
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    boolean offer(String shortUrl, long timestamp, String referrer, String userAgent, String clientAddress) {
+        long ticket = tail.get();
+        while (true) {
+            int slot = (int) (ticket & mask);
+            long sequence = sequences.getAcquire(slot);
+            if (sequence == ticket) {
+                if (tail.compareAndSet(ticket, ticket + 1)) {
+                    shortUrls[slot] = shortUrl;
+                    timestamps[slot] = timestamp;
+                    referrers[slot] = referrer;
+                    userAgents[slot] = userAgent;
+                    clientAddresses[slot] = clientAddress;
+                    sequences.setRelease(slot, ticket + 1);
+                    return true;
+                }
+                ticket = tail.get();
+            } else if (sequence < ticket) {
+                return false; // the consumer has not freed this slot from the previous lap
+            } else {
+                ticket = tail.get(); // another producer took this ticket
+            }
+        }
+    }
+
+    /**
+     * Hand every published click to the handler, in order; consumer thread only
+     *
+     * @return the number of clicks drained
+     */
+    int drain(Handler handler, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) (head & mask);
+            if (sequences.getAcquire(slot) != head + 1) {
+                break;
+            }
+            handler.handle(shortUrls[slot], timestamps[slot], referrers[slot], userAgents[slot], clientAddresses[slot]);
+            shortUrls[slot] = null;
+            referrers[slot] = null;
+            userAgents[slot] = null;
+            clientAddresses[slot] = null;
+            sequences.setRelease(slot, head + mask + 1);
+            head++;
+            drained++;
+        }
+        published = head;
+        return drained;
+    }
+
+    /**
+     * @return clicks waiting for the consumer, as of its last drain
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - published);
+    }
+}
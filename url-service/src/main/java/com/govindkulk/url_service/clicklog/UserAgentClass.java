@@ -0,0 +1,40 @@
+package com.govindkulk.url_service.clicklog;
+
+/**
+ * Coarse device class of a click, from its User-Agent header.
+ * Stored in the click log as the ordinal, so new values go at the end.
+ */
+public enum UserAgentClass {
+
+    UNKNOWN,
+    DESKTOP,
+    MOBILE,
+    TABLET,
+    BOT;
+
+    private static final UserAgentClass[] VALUES = values();
+
+    static UserAgentClass fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : UNKNOWN;
+    }
+
+    /**
+     * Cheap substring checks, good enough for aggregate statistics
+     */
+    public static UserAgentClass classify(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        String ua = userAgent.toLowerCase();
+        if (ua.contains("bot") || ua.contains("spider") || ua.contains("crawl") || ua.contains("preview")) {
+            return BOT;
+        }
+        if (ua.contains("ipad") || ua.contains("tablet")) {
+            return TABLET;
+        }
+        if (ua.contains("mobi") || ua.contains("android") || ua.contains("iphone")) {
+            return MOBILE;
+        }
+        return DESKTOP;
+    }
+}
@@ -0,0 +1,68 @@
+package com.govindkulk.url_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Click Log Configuration Properties
+ * Location and sizing of the append-only click event log and its consumer
+ */
+@Component
+@ConfigurationProperties(prefix = "click-log")
+public class ClickLogConfig {
+
+    private boolean enabled = true;
+    private String directory = "data/click-log";
+    private int segmentRecords = 1 << 20;   // 64-byte records per segment file (64 MiB)
+    private int ringCapacity = 1 << 16;     // clicks buffered between requests and the writer; rounded up to a power of two
+    private long forceIntervalMs = 1000;    // how often written records are forced to disk
+    private int retainSegments = 8;         // consumed segments kept for replay before they are deleted
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentRecords() {
+        return segmentRecords;
+    }
+
+    public void setSegmentRecords(int segmentRecords) {
+        this.segmentRecords = segmentRecords;
+    }
+
+    public int getRingCapacity() {
+        return ringCapacity;
+    }
+
+    public void setRingCapacity(int ringCapacity) {
+        this.ringCapacity = ringCapacity;
+    }
+
+    public long getForceIntervalMs() {
+        return forceIntervalMs;
+    }
+
+    public void setForceIntervalMs(long forceIntervalMs) {
+        this.forceIntervalMs = forceIntervalMs;
+    }
+
+    public int getRetainSegments() {
+        return retainSegments;
+    }
+
+    public void setRetainSegments(int retainSegments) {
+        this.retainSegments = retainSegments;
+    }
+}
@@ -0,0 +1,97 @@
+package com.govindkulk.url_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Click Statistics Configuration Properties
+ * In-memory windows, table retention and query limits of the per-link click statistics
+ */
+@Component
+@ConfigurationProperties(prefix = "click-stats")
+public class ClickStatsConfig {
+
+    private boolean enabled = true;                            // maintain rollups from the click log
+    private Duration minuteWindow = Duration.ofHours(2);       // minute buckets held in memory per link
+    private Duration hourWindow = Duration.ofDays(7);          // hour buckets held in memory per link
+    private Duration dayWindow = Duration.ofDays(31);          // day buckets held in memory per link
+    private Duration minuteRetention = Duration.ofDays(1);     // minute rows kept in click_rollup
+    private Duration hourRetention = Duration.ofDays(90);      // hour rows kept in click_rollup; day rows live as long as the link
+    private int maximumLinks = 10000;                          // links whose windows are held in memory
+    private Duration refreshInterval = Duration.ofMinutes(1);  // reload of a link's windows, picks up other instances' clicks
+    private int maxBuckets = 1500;                             // buckets one query may return
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMinuteWindow() {
+        return minuteWindow;
+    }
+
+    public void setMinuteWindow(Duration minuteWindow) {
+        this.minuteWindow = minuteWindow;
+    }
+
+    public Duration getHourWindow() {
+        return hourWindow;
+    }
+
+    public void setHourWindow(Duration hourWindow) {
+        this.hourWindow = hourWindow;
+    }
+
+    public Duration getDayWindow() {
+        return dayWindow;
+    }
+
+    public void setDayWindow(Duration dayWindow) {
+        this.dayWindow = dayWindow;
+    }
+
+    public Duration getMinuteRetention() {
+        return minuteRetention;
+    }
+
+    public void setMinuteRetention(Duration minuteRetention) {
+        this.minuteRetention = minuteRetention;
+    }
+
+    public Duration getHourRetention() {
+        return hourRetention;
+    }
+
+    public void setHourRetention(Duration hourRetention) {
+        this.hourRetention = hourRetention;
+    }
+
+    public int getMaximumLinks() {
+        return maximumLinks;
+    }
+
+    public void setMaximumLinks(int maximumLinks) {
+        this.maximumLinks = maximumLinks;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+}
@@ -0,0 +1,61 @@
+package com.govindkulk.url_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Link Expiration Configuration Properties
+ * Lifetime limits for new links and pacing of the expired link purge
+ */
+@Component
+@ConfigurationProperties(prefix = "link-expiration")
+public class LinkExpirationConfig {
+
+    private Duration defaultTtl = Duration.ofDays(7); // used when a create request sets no expiry
+    private Duration maxTtl = Duration.ofDays(365);   // longest expiry a create request may ask for
+    private boolean purgeEnabled = true;
+    private int purgeBatchSize = 500;                 // rows deleted per statement
+    private int purgeMaxBatches = 200;                // batches per purge run, bounds one run's work
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Duration getMaxTtl() {
+        return maxTtl;
+    }
+
+    public void setMaxTtl(Duration maxTtl) {
+        this.maxTtl = maxTtl;
+    }
+
+    public boolean isPurgeEnabled() {
+        return purgeEnabled;
+    }
+
+    public void setPurgeEnabled(boolean purgeEnabled) {
+        this.purgeEnabled = purgeEnabled;
+    }
+
+    public int getPurgeBatchSize() {
+        return purgeBatchSize;
+    }
+
+    public void setPurgeBatchSize(int purgeBatchSize) {
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    public int getPurgeMaxBatches() {
+        return purgeMaxBatches;
+    }
+
+    public void setPurgeMaxBatches(int purgeMaxBatches) {
+        this.purgeMaxBatches = purgeMaxBatches;
+    }
+}
@@ -0,0 +1,43 @@
+package com.govindkulk.url_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redirect Cache Configuration Properties
+ * Controls the in-process shortUrl -> originalUrl cache used by redirects
+ */
+@Component
+@ConfigurationProperties(prefix = "redirect-cache")
+public class RedirectCacheConfig {
+
+    private boolean enabled = true;
+    private long maximumSize = 10000;              // entries kept in memory
+    private Duration ttl = Duration.ofMinutes(10); // time since the entry was loaded
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
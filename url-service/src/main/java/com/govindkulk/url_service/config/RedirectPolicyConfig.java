@@ -0,0 +1,37 @@
+package com.govindkulk.url_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.url_service.model.RedirectType;
+
+/**
+ * Redirect Policy Configuration Properties
+ * Default redirect type for new links and the HTTP cache lifetime of cacheable redirects
+ */
+@Component
+@ConfigurationProperties(prefix = "redirect-policy")
+public class RedirectPolicyConfig {
+
+    private RedirectType defaultType = RedirectType.TRACKED;
+    // Upper bound for Cache-Control max-age; the link's remaining lifetime is used when shorter
+    private Duration maxAge = Duration.ofDays(1);
+
+    public RedirectType getDefaultType() {
+        return defaultType;
+    }
+
+    public void setDefaultType(RedirectType defaultType) {
+        this.defaultType = defaultType;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
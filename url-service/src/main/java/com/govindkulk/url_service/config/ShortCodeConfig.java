@@ -0,0 +1,87 @@
+package com.govindkulk.url_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short Code Configuration Properties
+ * Selects how UrlShorteningService generates new short codes
+ */
+@Component
+@ConfigurationProperties(prefix = "short-code")
+public class ShortCodeConfig {
+
+    public enum Strategy {
+        HASH,     // hash of (url, userId), random fallback; checked for uniqueness
+        SEQUENCE, // ids leased in blocks from a database sequence; unique by construction
+        POOL      // random codes pre-generated and reserved in the background
+    }
+
+    private Strategy strategy = Strategy.HASH;
+    private int blockSize = 1000;        // ids leased per sequence call (SEQUENCE)
+    private boolean scramble = true;     // permute ids so codes are not guessable in order (SEQUENCE)
+    private long scrambleKey = 0x5DEECE66DL;
+    private int poolCapacity = 10000;    // codes held in memory per instance (POOL)
+    private int poolLowWatermark = 2000; // refill when fewer codes remain (POOL)
+    // Reservations not renewed for this long are freed for other instances (POOL);
+    // keep it well above pool-cleanup-interval-ms, the renewal period
+    private Duration poolLease = Duration.ofHours(1);
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public boolean isScramble() {
+        return scramble;
+    }
+
+    public void setScramble(boolean scramble) {
+        this.scramble = scramble;
+    }
+
+    public long getScrambleKey() {
+        return scrambleKey;
+    }
+
+    public void setScrambleKey(long scrambleKey) {
+        this.scrambleKey = scrambleKey;
+    }
+
+    public int getPoolCapacity() {
+        return poolCapacity;
+    }
+
+    public void setPoolCapacity(int poolCapacity) {
+        this.poolCapacity = poolCapacity;
+    }
+
+    public int getPoolLowWatermark() {
+        return poolLowWatermark;
+    }
+
+    public void setPoolLowWatermark(int poolLowWatermark) {
+        this.poolLowWatermark = poolLowWatermark;
+    }
+
+    public Duration getPoolLease() {
+        return poolLease;
+    }
+
+    public void setPoolLease(Duration poolLease) {
+        this.poolLease = poolLease;
+    }
+}
@@ -0,0 +1,65 @@
+package com.govindkulk.url_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short URL Filter Configuration Properties
+ * Sizing and refresh settings for the in-memory set of known short codes
+ */
+@Component
+@ConfigurationProperties(prefix = "short-url-filter")
+public class ShortUrlFilterConfig {
+
+    private boolean enabled = true;
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveProbability = 0.01;
+    // Rows created by other instances are picked up by re-reading this far back,
+    // which also absorbs clock skew between instances
+    private Duration syncOverlap = Duration.ofMinutes(1);
+    // Minimum gap between catch-up syncs triggered by redirect lookups the filter
+    // rules out; bounds how long a link created on another instance can 404 here
+    private Duration missSyncInterval = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    public void setFalsePositiveProbability(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public Duration getSyncOverlap() {
+        return syncOverlap;
+    }
+
+    public void setSyncOverlap(Duration syncOverlap) {
+        this.syncOverlap = syncOverlap;
+    }
+
+    public Duration getMissSyncInterval() {
+        return missSyncInterval;
+    }
+
+    public void setMissSyncInterval(Duration missSyncInterval) {
+        this.missSyncInterval = missSyncInterval;
+    }
+}
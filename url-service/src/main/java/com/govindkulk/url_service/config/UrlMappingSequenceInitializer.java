@@ -0,0 +1,52 @@
+package com.govindkulk.url_service.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.url_service.model.UrlMapping;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves url_mapping_seq past the existing ids on startup.
+ *
+ * url_mapping ids used to come from an IDENTITY column. When ddl-auto creates
+ * the new sequence it starts at 1, so on the first start against an existing
+ * table it would hand out ids that are already taken. This runs before the web
+ * server accepts requests and restarts the sequence above MAX(id) when needed;
+ * afterwards it is a no-op apart from one wasted id block per start.
+ *
+ * Replicas should not all be started at once on the first deploy after the
+ * switch, since two restarts could race with an allocation in between.
+ */
+@Component
+public class UrlMappingSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(UrlMappingSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValSql;
+
+    public UrlMappingSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(UrlMapping.ID_SEQUENCE);
+    }
+
+    @PostConstruct
+    public void alignSequence() {
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM url_mapping", Long.class);
+        long next = jdbcTemplate.queryForObject(nextValSql, Long.class);
+        // Hibernate's pooled optimizer derives ids (next - allocationSize, next]
+        if (maxId > 0 && next - UrlMapping.ID_ALLOCATION_SIZE < maxId) {
+            long restartWith = maxId + 2L * UrlMapping.ID_ALLOCATION_SIZE;
+            jdbcTemplate.execute("ALTER SEQUENCE " + UrlMapping.ID_SEQUENCE + " RESTART WITH " + restartWith);
+            log.info("Restarted {} at {} (max url_mapping id {})", UrlMapping.ID_SEQUENCE, restartWith, maxId);
+        }
+    }
+}
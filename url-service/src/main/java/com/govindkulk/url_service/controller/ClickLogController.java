@@ -0,0 +1,42 @@
+package com.govindkulk.url_service.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.govindkulk.url_service.clicklog.ClickEventLog;
+import com.govindkulk.url_service.dto.ClickEventRequest;
+
+/**
+ * Appends clicks served by url-redirect-service to this instance's click log, so
+ * the log and the statistics built from it cover both redirect paths.
+ * Not routed by the gateway; only other services call it.
+ */
+@RestController
+public class ClickLogController {
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    private final ClickEventLog clickEventLog;
+
+    public ClickLogController(ClickEventLog clickEventLog) {
+        this.clickEventLog = clickEventLog;
+    }
+
+    @PostMapping("/internal/clicks")
+    public ResponseEntity<Void> append(@RequestBody List<ClickEventRequest> clicks) {
+        if (clicks == null || clicks.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(400).build();
+        }
+        for (ClickEventRequest click : clicks) {
+            if (click.shortUrl() != null) {
+                clickEventLog.record(click.shortUrl(), click.timestamp(), click.referrer(), click.userAgent(),
+                        click.clientAddress());
+            }
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -1,8 +1,21 @@
 package com.govindkulk.url_service.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,20 +24,58 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.govindkulk.url_service.clicklog.ClickEventLog;
+import com.govindkulk.url_service.config.RedirectPolicyConfig;
+import com.govindkulk.url_service.dto.BatchCreateShortUrlResponse;
+import com.govindkulk.url_service.dto.ClickStatsResponse;
 import com.govindkulk.url_service.dto.CreateShortUrlResponse;
+import com.govindkulk.url_service.dto.RedirectTarget;
+import com.govindkulk.url_service.dto.UrlListSort;
+import com.govindkulk.url_service.dto.UrlPage;
+import com.govindkulk.url_service.dto.UrlPageCursor;
+import com.govindkulk.url_service.model.RedirectType;
+import com.govindkulk.url_service.model.StatsGranularity;
 import com.govindkulk.url_service.model.UrlMapping;
 import com.govindkulk.url_service.service.UrlService;
+import com.govindkulk.url_service.stats.ClickStatsService;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/urls")
 public class UrlController {
 
+    private static final Map<String, Object> URL_NOT_FOUND = Map.of("message", "Url not found");
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UrlService urlService;
 
-    public UrlController(UrlService urlService) {
+    private final ObjectMapper objectMapper;
+
+    private final RedirectPolicyConfig redirectPolicyConfig;
+
+    private final ClickEventLog clickEventLog;
+
+    private final ClickStatsService clickStatsService;
+
+    public UrlController(UrlService urlService, ObjectMapper objectMapper, RedirectPolicyConfig redirectPolicyConfig,
+            ClickEventLog clickEventLog, ClickStatsService clickStatsService) {
         this.urlService = urlService;
+        this.objectMapper = objectMapper;
+        this.redirectPolicyConfig = redirectPolicyConfig;
+        this.clickEventLog = clickEventLog;
+        this.clickStatsService = clickStatsService;
     }
 
     @GetMapping("/test")
@@ -46,7 +97,7 @@ public class UrlController {
         try{
             
             Long userIdLong = Long.parseLong(userId);
-            createShortUrlResponse  = urlService.createShortUrl(request.getOriginalUrl(), userIdLong);
+            createShortUrlResponse  = urlService.createShortUrl(request.getOriginalUrl(), userIdLong, request.getTtl(), request.getRedirectType());
         }
         catch(NumberFormatException e){
             return ResponseEntity.status(400).body(null);
@@ -59,32 +110,132 @@ public class UrlController {
         return ResponseEntity.ok(createShortUrlResponse);
     }
 
-    @GetMapping
-    public ResponseEntity<List<UrlMapping>> getUserUrls(
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateShortUrlResponse> createShortUrls(
+            @RequestBody BatchCreateUrlRequest request,
             @RequestHeader(value = "X-User-ID", required = false) String userId) {
+
+        if (userId == null) {
+            return ResponseEntity.status(401).body(null);
+        }
+
+        List<String> originalUrls = request.getOriginalUrls();
+        if (originalUrls == null || originalUrls.isEmpty() || originalUrls.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(400).body(null);
+        }
+
+        Long userIdLong = Long.parseLong(userId);
+        try {
+            return ResponseEntity.ok(urlService.createShortUrls(originalUrls, userIdLong, request.getTtl(), request.getRedirectType()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(null);
+        }
+    }
+
+    // Keyset pages, selected by a limit and/or cursor parameter; without either the
+    // endpoint keeps its original array response (streamUserUrls)
+    @GetMapping
+    public ResponseEntity<UrlPage> getUserUrls(
+            @RequestHeader(value = "X-User-ID", required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "newest") String sort) {
         
         if (userId == null) {
             return ResponseEntity.status(401).body(null);
         }
         
         Long userIdLong = Long.parseLong(userId);
-        List<UrlMapping> urls = urlService.getAllUrlsByUserId(userIdLong);
-        return ResponseEntity.ok(urls);
+        UrlPage page;
+        try {
+            UrlPageCursor pageCursor = cursor == null ? null : UrlPageCursor.decode(cursor);
+            UrlListSort urlListSort = UrlListSort.valueOf(sort.toUpperCase(Locale.ROOT));
+            int pageSize = Math.max(1, Math.min(limit == null ? DEFAULT_PAGE_SIZE : limit, MAX_PAGE_SIZE));
+            page = urlService.getUrlPage(userIdLong, pageCursor, pageSize, urlListSort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(null);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    // Default mode: a plain JSON array of all the user's links, as the endpoint always
+    // returned, written row by row while the database cursor is read. An explicit
+    // ?stream=true lands here too
+    @GetMapping(params = { "!limit", "!cursor" })
+    public ResponseEntity<StreamingResponseBody> streamUserUrls(
+            @RequestHeader(value = "X-User-ID", required = false) String userId) {
+
+        if (userId == null) {
+            return ResponseEntity.status(401).body(null);
+        }
+
+        Long userIdLong = Long.parseLong(userId);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                urlService.streamUrlsByUserId(userIdLong, url -> {
+                    try {
+                        json.writeObject(url);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{shortUrl}")
-    public ResponseEntity<?> redirect(@PathVariable String shortUrl) {
+    public ResponseEntity<?> redirect(@PathVariable String shortUrl, HttpServletRequest request) {
 
-        System.out.println("shortUrl: from controller " + shortUrl);
         // This endpoint is for redirects and doesn't need authentication
-        UrlMapping urlMapping = urlService.getOriginalUrlByShortUrl(shortUrl);
-        urlService.updateClickCount(shortUrl);
-        
-        return ResponseEntity.status(302)
-                .location(URI.create(urlMapping.getOriginalUrl()))
+        Optional<RedirectTarget> target = urlService.getRedirectTarget(shortUrl);
+        if (target.isEmpty()) {
+            return ResponseEntity.status(404).body(URL_NOT_FOUND);
+        }
+        RedirectType redirectType = target.get().redirectType();
+        if (redirectType.countsClicks()) {
+            urlService.updateClickCount(shortUrl);
+            clickEventLog.record(shortUrl, request.getHeader(HttpHeaders.REFERER),
+                    request.getHeader(HttpHeaders.USER_AGENT), clientAddress(request));
+        }
+
+        return ResponseEntity.status(redirectType.getStatus())
+                .location(URI.create(target.get().originalUrl()))
+                .headers(headers -> applyCachePolicy(headers, target.get()))
                 .build();
     }
 
+    // Behind the gateway the remote address is the gateway's; it appends the address it
+    // saw to X-Forwarded-For, so the last entry is the one no client can forge
+    private static String clientAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+    }
+
+    // Cacheable redirects may be reused by browsers and CDNs until the link expires
+    // (capped at redirect-policy.max-age); tracked redirects must reach us on every click
+    private void applyCachePolicy(HttpHeaders headers, RedirectTarget target) {
+        if (!target.redirectType().isCacheable()) {
+            headers.setCacheControl(CacheControl.noStore());
+            return;
+        }
+        Instant now = Instant.now();
+        Duration maxAge = redirectPolicyConfig.getMaxAge();
+        if (target.expirationDate() != null) {
+            Duration remaining = Duration.between(now, target.expirationDate().atZone(ZoneId.systemDefault()).toInstant());
+            if (remaining.compareTo(maxAge) < 0) {
+                maxAge = remaining.isNegative() ? Duration.ZERO : remaining;
+            }
+        }
+        headers.setCacheControl(CacheControl.maxAge(maxAge).cachePublic());
+        headers.setExpires(now.plus(maxAge).atZone(ZoneOffset.UTC));
+    }
+
     @DeleteMapping("/{shortUrl}")
     // make required = false to handle the case where the user is not authenticated
     // otherwise it will throw 400 error
@@ -113,11 +264,66 @@ public class UrlController {
         
         return ResponseEntity.ok(urlMapping);
     }
+
+    // Clicks per minute, hour or day bucket (UTC) in [from, to), ISO-8601 instants.
+    // Defaults: hour buckets, to = now, from = 60 minutes / 24 hours / 30 days before to
+    @GetMapping("/stats/{shortUrl}/clicks")
+    public ResponseEntity<ClickStatsResponse> getClickStats(@PathVariable String shortUrl,
+            @RequestHeader(value = "X-User-ID", required = false) String userId,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        Long userIdLong = Long.parseLong(userId);
+        ClickStatsResponse stats;
+        try {
+            StatsGranularity statsGranularity = StatsGranularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+            Instant toInstant = to == null ? Instant.now() : Instant.parse(to);
+            Instant fromInstant = from == null ? toInstant.minus(defaultStatsSpan(statsGranularity)) : Instant.parse(from);
+            stats = clickStatsService.getClickStats(shortUrl, userIdLong, statsGranularity, fromInstant, toInstant);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(400).build();
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    private static Duration defaultStatsSpan(StatsGranularity granularity) {
+        return switch (granularity) {
+            case MINUTE -> Duration.ofMinutes(60);
+            case HOUR -> Duration.ofHours(24);
+            case DAY -> Duration.ofDays(30);
+        };
+    }
 }
 
 class CreateUrlRequest {
     private String originalUrl;
+    private Long expiresInSeconds; // optional, defaults to link-expiration.default-ttl
+    private RedirectType redirectType; // optional, defaults to redirect-policy.default-type
     
     public String getOriginalUrl() { return originalUrl; }
     public void setOriginalUrl(String originalUrl) { this.originalUrl = originalUrl; }
+    public Long getExpiresInSeconds() { return expiresInSeconds; }
+    public void setExpiresInSeconds(Long expiresInSeconds) { this.expiresInSeconds = expiresInSeconds; }
+    public RedirectType getRedirectType() { return redirectType; }
+    public void setRedirectType(RedirectType redirectType) { this.redirectType = redirectType; }
+    Duration getTtl() { return expiresInSeconds == null ? null : Duration.ofSeconds(expiresInSeconds); }
+}
+
+class BatchCreateUrlRequest {
+    private List<String> originalUrls;
+    private Long expiresInSeconds; // optional, applies to every link in the batch
+    private RedirectType redirectType; // optional, applies to every link in the batch
+
+    public List<String> getOriginalUrls() { return originalUrls; }
+    public void setOriginalUrls(List<String> originalUrls) { this.originalUrls = originalUrls; }
+    public Long getExpiresInSeconds() { return expiresInSeconds; }
+    public void setExpiresInSeconds(Long expiresInSeconds) { this.expiresInSeconds = expiresInSeconds; }
+    public RedirectType getRedirectType() { return redirectType; }
+    public void setRedirectType(RedirectType redirectType) { this.redirectType = redirectType; }
+    Duration getTtl() { return expiresInSeconds == null ? null : Duration.ofSeconds(expiresInSeconds); }
 }
@@ -0,0 +1,46 @@
+package com.govindkulk.url_service.dto;
+
+import java.util.List;
+
+/**
+ * Result of POST /api/urls/batch: one entry per requested URL, in request order,
+ * each either a success or an error for that item alone.
+ */
+public class BatchCreateShortUrlResponse {
+
+    private List<CreateShortUrlResponse> results;
+    private int created;
+    private int failed;
+
+    public BatchCreateShortUrlResponse(List<CreateShortUrlResponse> results) {
+        this.results = results;
+        for (CreateShortUrlResponse result : results) {
+            if (result.isSuccess()) {
+                created++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public BatchCreateShortUrlResponse(){};
+
+    public List<CreateShortUrlResponse> getResults() {
+        return results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public String toString(){
+        return "BatchCreateShortUrlResponse{" +
+                "created=" + created +
+                ", failed=" + failed +
+                '}';
+    }
+}
@@ -0,0 +1,9 @@
+package com.govindkulk.url_service.dto;
+
+/**
+ * One click served by url-redirect-service, as posted to /internal/clicks.
+ * timestamp is in epoch milliseconds; referrer and userAgent may be null.
+ */
+public record ClickEventRequest(String shortUrl, long timestamp, String referrer, String userAgent,
+        String clientAddress) {
+}
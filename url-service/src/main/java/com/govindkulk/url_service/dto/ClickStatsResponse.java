@@ -0,0 +1,17 @@
+package com.govindkulk.url_service.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.govindkulk.url_service.model.StatsGranularity;
+
+/**
+ * GET /api/urls/stats/{shortUrl}/clicks: one entry per bucket in [from, to),
+ * including empty ones, oldest first. from is rounded down to a bucket start.
+ */
+public record ClickStatsResponse(String shortUrl, StatsGranularity granularity, Instant from, Instant to,
+        long total, List<Bucket> buckets) {
+
+    public record Bucket(Instant start, long clicks) {
+    }
+}
@@ -1,9 +1,12 @@
 package com.govindkulk.url_service.dto;
 
+import java.time.LocalDateTime;
+
 public class CreateShortUrlResponse {
 
     private String shortUrl;
     private String originalUrl;
+    private LocalDateTime expirationDate;
     private boolean success;
     private String message;
 
@@ -31,6 +34,10 @@ public class CreateShortUrlResponse {
         this.originalUrl = originalUrl;
     }
 
+    public LocalDateTime getExpirationDate() {
+        return expirationDate;
+    }
+
     public boolean isSuccess() {
         return success;
     }
@@ -45,6 +52,13 @@ public class CreateShortUrlResponse {
         return new CreateShortUrlResponse(null, null, false, message);
     }
 
+    public static CreateShortUrlResponse error(
+        String originalUrl,
+        String message
+    ){
+        return new CreateShortUrlResponse(null, originalUrl, false, message);
+    }
+
     private void setMessage(String message) {
         this.message = message;
     }
@@ -56,10 +70,22 @@ public class CreateShortUrlResponse {
     ){
         return new CreateShortUrlResponse(shortUrl, originalUrl, true, message);
     }
+
+    public static CreateShortUrlResponse success(
+        String shortUrl,
+        String originalUrl,
+        LocalDateTime expirationDate,
+        String message
+    ){
+        CreateShortUrlResponse response = new CreateShortUrlResponse(shortUrl, originalUrl, true, message);
+        response.expirationDate = expirationDate;
+        return response;
+    }
     public String toString(){
         return "CreateShortUrlResponse{" +
                 "shortUrl='" + shortUrl + '\'' +
                 ", originalUrl='" + originalUrl + '\'' +
+                ", expirationDate=" + expirationDate +
                 ", success=" + success +
                 ", message='" + message + '\'' +
                 '}';
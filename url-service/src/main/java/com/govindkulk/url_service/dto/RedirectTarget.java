@@ -0,0 +1,23 @@
+package com.govindkulk.url_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.govindkulk.url_service.model.RedirectType;
+
+/**
+ * Read-only projection of the columns a redirect needs.
+ * Loaded without creating a managed UrlMapping entity.
+ * A null expirationDate (rows created before expiry was enforced) never expires.
+ */
+public record RedirectTarget(String originalUrl, LocalDateTime expirationDate, RedirectType redirectType) {
+
+    public RedirectTarget {
+        if (redirectType == null) {
+            redirectType = RedirectType.TRACKED;
+        }
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return expirationDate != null && !expirationDate.isAfter(now);
+    }
+}
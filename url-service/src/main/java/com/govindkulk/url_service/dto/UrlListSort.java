@@ -0,0 +1,10 @@
+package com.govindkulk.url_service.dto;
+
+/**
+ * Sort orders supported by GET /api/urls.
+ * Both are keyset orders on (created_at, id), served by idx_url_mapping_user_created.
+ */
+public enum UrlListSort {
+    NEWEST,
+    OLDEST
+}
@@ -0,0 +1,20 @@
+package com.govindkulk.url_service.dto;
+
+import java.time.LocalDateTime;
+
+import com.govindkulk.url_service.model.RedirectType;
+
+/**
+ * Read-only projection of a user's link for GET /api/urls.
+ * Loaded without creating managed UrlMapping entities, so listing and streaming
+ * do not grow the persistence context.
+ */
+public record UrlMappingView(Long id, Long userId, String originalUrl, String shortUrl,
+        LocalDateTime createdAt, LocalDateTime expirationDate, int clickCount, RedirectType redirectType) {
+
+    public UrlMappingView {
+        if (redirectType == null) {
+            redirectType = RedirectType.TRACKED;
+        }
+    }
+}
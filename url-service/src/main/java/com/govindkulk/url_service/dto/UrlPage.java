@@ -0,0 +1,10 @@
+package com.govindkulk.url_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/urls, returned when limit or cursor is given. nextCursor is
+ * null on the last page.
+ */
+public record UrlPage(List<UrlMappingView> items, String nextCursor) {
+}
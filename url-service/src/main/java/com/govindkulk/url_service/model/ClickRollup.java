@@ -0,0 +1,82 @@
+package com.govindkulk.url_service.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Clicks on one link in one minute, hour or day bucket, maintained incrementally
+ * from the click log. Rows are written and read with plain JDBC by
+ * ClickRollupStore; this entity only defines the table.
+ */
+@Entity
+@Table(name = "click_rollup", indexes = {
+    // Retention purge of old minute and hour rows
+    @Index(name = "idx_click_rollup_bucket", columnList = "granularity, bucket_start")
+})
+@IdClass(ClickRollup.Key.class)
+public class ClickRollup {
+
+    // Primary key order (short_url, granularity, bucket_start) serves a link's range queries
+    @Id
+    @Column(name = "short_url", length = 32)
+    private String shortUrl;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 8)
+    private StatsGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private long bucketStart; // epoch millis, UTC aligned
+
+    @Column(name = "clicks", nullable = false)
+    private long clicks;
+
+    public ClickRollup() {}
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public StatsGranularity getGranularity() {
+        return granularity;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getClicks() {
+        return clicks;
+    }
+
+    public static class Key implements Serializable {
+
+        private String shortUrl;
+        private StatsGranularity granularity;
+        private long bucketStart;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && bucketStart == key.bucketStart
+                    && granularity == key.granularity && Objects.equals(shortUrl, key.shortUrl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shortUrl, granularity, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.govindkulk.url_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * How far into one instance's click log the click_rollup table has been updated.
+ * Written in the same transaction as the rollups, so a click redelivered after a
+ * crash is recognised and not counted twice. Plain JDBC, like ClickRollup.
+ */
+@Entity
+@Table(name = "click_rollup_offset")
+public class ClickRollupOffset {
+
+    @Id
+    @Column(name = "log_id", length = 36)
+    private String logId;
+
+    @Column(name = "position", nullable = false)
+    private long position;
+
+    public ClickRollupOffset() {}
+
+    public String getLogId() {
+        return logId;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
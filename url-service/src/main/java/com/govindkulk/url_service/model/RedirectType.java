@@ -0,0 +1,37 @@
+package com.govindkulk.url_service.model;
+
+/**
+ * How a short link redirects, chosen per link at creation.
+ * Links created before this existed have no stored type and behave as TRACKED.
+ */
+public enum RedirectType {
+
+    // 302, never cached: every click reaches us and is counted
+    TRACKED(302, true),
+    // 302, cacheable by browsers and CDNs until the link expires; clicks are not counted
+    CACHEABLE(302, false),
+    // 301, cacheable until the link expires; for links whose target never changes.
+    // Clients may keep following a cached 301 after the link is deleted, until max-age passes
+    PERMANENT(301, false);
+
+    private final int status;
+    private final boolean countsClicks;
+
+    RedirectType(int status, boolean countsClicks) {
+        this.status = status;
+        this.countsClicks = countsClicks;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean countsClicks() {
+        return countsClicks;
+    }
+
+    // Counting a click needs the request to reach us, so only uncounted links may be cached
+    public boolean isCacheable() {
+        return !countsClicks;
+    }
+}
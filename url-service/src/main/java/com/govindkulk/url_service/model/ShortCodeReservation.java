@@ -0,0 +1,50 @@
+package com.govindkulk.url_service.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A random short code reserved by ShortCodePool but not yet used.
+ * The primary key stops two instances from reserving the same code; rows are
+ * written and cleaned up with plain JDBC, this entity only defines the table.
+ * reserved_at is renewed by the owning instance and acts as a lease.
+ */
+@Entity
+@Table(name = "short_code_pool")
+public class ShortCodeReservation {
+
+    @Id
+    @Column(name = "code", length = 16)
+    private String code;
+
+    @Column(name = "reserved_at", nullable = false)
+    private LocalDateTime reservedAt;
+
+    // Nullable so rows reserved before this column existed simply expire
+    @Column(name = "reserved_by", length = 36)
+    private String reservedBy;
+
+    public ShortCodeReservation() {}
+
+    public ShortCodeReservation(String code, LocalDateTime reservedAt, String reservedBy) {
+        this.code = code;
+        this.reservedAt = reservedAt;
+        this.reservedBy = reservedBy;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public LocalDateTime getReservedAt() {
+        return reservedAt;
+    }
+
+    public String getReservedBy() {
+        return reservedBy;
+    }
+}
@@ -0,0 +1,29 @@
+package com.govindkulk.url_service.model;
+
+/**
+ * Bucket sizes of the click statistics. Buckets are aligned to UTC, so a DAY
+ * bucket runs from 00:00 to 24:00 UTC.
+ */
+public enum StatsGranularity {
+
+    MINUTE(60_000L),
+    HOUR(3_600_000L),
+    DAY(86_400_000L);
+
+    private final long millis;
+
+    StatsGranularity(long millis) {
+        this.millis = millis;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return the start, in epoch millis, of the bucket holding the given instant
+     */
+    public long bucketStart(long epochMillis) {
+        return Math.floorDiv(epochMillis, millis) * millis;
+    }
+}
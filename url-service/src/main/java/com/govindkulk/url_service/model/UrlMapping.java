@@ -6,12 +6,31 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "url_mapping", indexes = {
+    // Used by ShortUrlFilter to pick up rows created by other instances
+    @Index(name = "idx_url_mapping_created_at", columnList = "created_at"),
+    // Keyset pagination of a user's links (GET /api/urls)
+    @Index(name = "idx_url_mapping_user_created", columnList = "user_id, created_at, id"),
+    // Keyset scan of expired links by ExpiredLinkPurger
+    @Index(name = "idx_url_mapping_expiration", columnList = "expiration_date, id")
+})
 public class UrlMapping {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts:
+    // one nextval hands out ALLOCATION_SIZE ids (see UrlMappingSequenceInitializer)
+    public static final String ID_SEQUENCE = "url_mapping_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -33,6 +52,10 @@ public class UrlMapping {
     @Column(name = "click_count")
     private int clickCount = 0;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "redirect_type", length = 16)
+    private RedirectType redirectType = RedirectType.TRACKED;
+
     public UrlMapping() {};
 
     public UrlMapping(String originalUrl, String shortUrl, Long userId, LocalDateTime createdAt, LocalDateTime expirationDate, int clickCount) {
@@ -68,6 +91,14 @@ public class UrlMapping {
         return clickCount;
     }
 
+    public RedirectType getRedirectType() {
+        return redirectType == null ? RedirectType.TRACKED : redirectType;
+    }
+
+    public void setRedirectType(RedirectType redirectType) {
+        this.redirectType = redirectType;
+    }
+
     public void setOriginalUrl(String originalUrl) {
         this.originalUrl = originalUrl;
     }
@@ -101,6 +132,7 @@ public class UrlMapping {
                 ", createdAt=" + createdAt +
                 ", expirationDate=" + expirationDate +
                 ", clickCount=" + clickCount +
+                ", redirectType=" + redirectType +
                 '}';
     }
 }
@@ -1,17 +1,66 @@
 package com.govindkulk.url_service.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.govindkulk.url_service.dto.RedirectTarget;
+import com.govindkulk.url_service.dto.UrlMappingView;
 import com.govindkulk.url_service.model.UrlMapping;
 
+import jakarta.persistence.QueryHint;
+
 public interface UrlMappingRepository extends JpaRepository<UrlMapping, Long> {
 
     Optional<UrlMapping> findByShortUrl(String shortUrl);
 
-    List<UrlMapping> findByUserId(Long userId);
+    boolean existsByShortUrl(String shortUrl);
+
+    // Bulk uniqueness check for batch creation: which of these codes are already taken
+    @Query("select u.shortUrl from UrlMapping u where u.shortUrl in :shortUrls")
+    List<String> findExistingShortUrls(@Param("shortUrls") Collection<String> shortUrls);
+
+    // Redirect fast path: three columns, no entity hydration or dirty checking
+    @Query("select new com.govindkulk.url_service.dto.RedirectTarget(u.originalUrl, u.expirationDate, u.redirectType) "
+            + "from UrlMapping u where u.shortUrl = :shortUrl")
+    Optional<RedirectTarget> findRedirectTargetByShortUrl(@Param("shortUrl") String shortUrl);
+
+    // Keyset pages of a user's links, ordered by (created_at, id) so the
+    // idx_url_mapping_user_created index serves both the filter and the sort
+
+    String VIEW = "select new com.govindkulk.url_service.dto.UrlMappingView("
+            + "u.id, u.userId, u.originalUrl, u.shortUrl, u.createdAt, u.expirationDate, u.clickCount, u.redirectType) "
+            + "from UrlMapping u where u.userId = :userId ";
+
+    @Query(VIEW + "order by u.createdAt desc, u.id desc")
+    List<UrlMappingView> findNewestByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query(VIEW + "and (u.createdAt < :createdAt or (u.createdAt = :createdAt and u.id < :id)) "
+            + "order by u.createdAt desc, u.id desc")
+    List<UrlMappingView> findNewestByUserIdBefore(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(VIEW + "order by u.createdAt asc, u.id asc")
+    List<UrlMappingView> findOldestByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query(VIEW + "and (u.createdAt > :createdAt or (u.createdAt = :createdAt and u.id > :id)) "
+            + "order by u.createdAt asc, u.id asc")
+    List<UrlMappingView> findOldestByUserIdAfter(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Server-side cursor over all of a user's links; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW + "order by u.createdAt desc, u.id desc")
+    Stream<UrlMappingView> streamByUserId(@Param("userId") Long userId);
 
     void deleteByShortUrlAndUserId(String shortUrl, Long userId);
 
@@ -0,0 +1,128 @@
+package com.govindkulk.url_service.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Click Count Aggregator
+ *
+ * Write-behind buffer for redirect clicks. Instead of loading and saving the
+ * UrlMapping on every click, increments are collected in memory and flushed as
+ * one batched "click_count = click_count + ?" statement.
+ *
+ * Key Features:
+ * - Counters are split across lock stripes chosen by short URL hash, so clicks on
+ *   different links rarely contend and clicks on the same link are never lost
+ * - Flushing swaps each stripe for an empty one, so the buffer only ever holds the
+ *   links clicked since the last flush
+ * - Increments from a failed flush are put back and retried on the next run
+ * - The buffer is drained on shutdown
+ */
+@Component
+public class ClickCountAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickCountAggregator.class);
+
+    private static final String INCREMENT_SQL =
+            "UPDATE url_mapping SET click_count = click_count + ? WHERE short_url = ?";
+
+    private static final int STRIPES = 16; // power of two, see stripeFor
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ClickCountAggregator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Record one click. Never touches the database.
+     */
+    public void increment(String shortUrl) {
+        add(shortUrl, 1);
+    }
+
+    /**
+     * Write all buffered increments to the database in a single batch.
+     */
+    @Scheduled(fixedDelayString = "${click-counter.flush-interval-ms:5000}")
+    public void flush() {
+        // Sorted so concurrent replicas lock rows in the same order
+        Map<String, Long> pending = new TreeMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.drainTo(pending);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        pending.forEach((shortUrl, count) -> batch.add(new Object[] { count, shortUrl }));
+
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} click counters, will retry: {}", pending.size(), e.getMessage());
+            pending.forEach(this::add);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void add(String shortUrl, long count) {
+        stripeFor(shortUrl).add(shortUrl, count);
+    }
+
+    private Stripe stripeFor(String shortUrl) {
+        int h = shortUrl.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<String, Long> counts = new HashMap<>();
+
+        void add(String shortUrl, long count) {
+            lock.lock();
+            try {
+                counts.merge(shortUrl, count, Long::sum);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drainTo(Map<String, Long> target) {
+            Map<String, Long> drained;
+            lock.lock();
+            try {
+                if (counts.isEmpty()) {
+                    return;
+                }
+                drained = counts;
+                counts = new HashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            drained.forEach((shortUrl, count) -> target.merge(shortUrl, count, Long::sum));
+        }
+    }
+}
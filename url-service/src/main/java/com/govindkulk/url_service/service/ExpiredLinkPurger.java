@@ -0,0 +1,143 @@
+package com.govindkulk.url_service.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.url_service.cache.RedirectCache;
+import com.govindkulk.url_service.cache.ShortUrlFilter;
+import com.govindkulk.url_service.config.LinkExpirationConfig;
+import com.govindkulk.url_service.stats.ClickStatsService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Expired Link Purger
+ *
+ * Deletes url_mapping rows whose expiration_date has passed, so the table and its
+ * indexes only hold links that can still be served.
+ *
+ * Key Features:
+ * - Rows are found in keyset order on (expiration_date, id) via
+ *   idx_url_mapping_expiration, so each batch starts where the previous one ended
+ *   instead of rescanning index entries of rows already deleted
+ * - Each batch is its own short DELETE statement of at most purge-batch-size rows,
+ *   so row locks are held only for that statement
+ * - A run stops after purge-max-batches; the next run continues the backlog
+ * - Codes actually deleted (not those of links extended since they were selected)
+ *   are dropped from the redirect cache and the ShortUrlFilter, and their click
+ *   statistics are deleted
+ *
+ * Safe to run on every instance: a row deleted by another instance is simply not
+ * deleted twice.
+ */
+@Component
+public class ExpiredLinkPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredLinkPurger.class);
+
+    private static final String FIRST_BATCH_SQL = "SELECT id, short_url, expiration_date FROM url_mapping "
+            + "WHERE expiration_date < ? ORDER BY expiration_date, id LIMIT ?";
+    private static final String NEXT_BATCH_SQL = "SELECT id, short_url, expiration_date FROM url_mapping "
+            + "WHERE expiration_date < ? AND (expiration_date > ? OR (expiration_date = ? AND id > ?)) "
+            + "ORDER BY expiration_date, id LIMIT ?";
+    // expiration_date is checked again in case the link was extended since it was selected
+    private static final String DELETE_SQL =
+            "DELETE FROM url_mapping WHERE id IN (:ids) AND expiration_date < :now";
+    private static final String REMAINING_SQL = "SELECT short_url FROM url_mapping WHERE id IN (:ids)";
+
+    private final LinkExpirationConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final RedirectCache redirectCache;
+    private final ShortUrlFilter shortUrlFilter;
+    private final ClickStatsService clickStatsService;
+    private final Counter purged;
+
+    public ExpiredLinkPurger(LinkExpirationConfig config, JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate, RedirectCache redirectCache,
+            ShortUrlFilter shortUrlFilter, ClickStatsService clickStatsService, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.redirectCache = redirectCache;
+        this.shortUrlFilter = shortUrlFilter;
+        this.clickStatsService = clickStatsService;
+        this.purged = Counter.builder("url.links.purged")
+                .description("Expired links deleted by the purger")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${link-expiration.purge-interval-ms:60000}")
+    public void purge() {
+        if (!config.isPurgeEnabled()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = config.getPurgeBatchSize();
+        int total = 0;
+        try {
+            ExpiredRow last = null;
+            for (int batch = 0; batch < config.getPurgeMaxBatches(); batch++) {
+                List<ExpiredRow> rows = last == null
+                        ? jdbcTemplate.query(FIRST_BATCH_SQL, ExpiredLinkPurger::mapRow, now, batchSize)
+                        : jdbcTemplate.query(NEXT_BATCH_SQL, ExpiredLinkPurger::mapRow,
+                                now, last.expirationDate(), last.expirationDate(), last.id(), batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                total += delete(rows, now);
+                if (rows.size() < batchSize) {
+                    break;
+                }
+                last = rows.get(rows.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Expired link purge stopped after {} rows: {}", total, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Purged {} expired links", total);
+        }
+    }
+
+    private int delete(List<ExpiredRow> rows, Timestamp now) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        List<String> shortUrls = new ArrayList<>(rows.size());
+        for (ExpiredRow row : rows) {
+            ids.add(row.id());
+            shortUrls.add(row.shortUrl());
+        }
+        int deleted = namedJdbcTemplate.update(DELETE_SQL, Map.of("ids", ids, "now", now));
+        if (deleted < rows.size()) {
+            // Links extended since they were selected keep their cache entry, filter
+            // entry and statistics
+            shortUrls.removeAll(namedJdbcTemplate.queryForList(REMAINING_SQL, Map.of("ids", ids), String.class));
+        }
+        for (String shortUrl : shortUrls) {
+            redirectCache.invalidate(shortUrl);
+            shortUrlFilter.remove(shortUrl);
+        }
+        clickStatsService.forget(shortUrls);
+        purged.increment(deleted);
+        return deleted;
+    }
+
+    private static ExpiredRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ExpiredRow(rs.getLong(1), rs.getString(2), rs.getTimestamp(3));
+    }
+
+    private record ExpiredRow(long id, String shortUrl, Timestamp expirationDate) {
+    }
+}
@@ -1,16 +1,40 @@
 package com.govindkulk.url_service.service;
 
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.govindkulk.url_service.cache.RedirectCache;
+import com.govindkulk.url_service.cache.ShortUrlFilter;
+import com.govindkulk.url_service.config.LinkExpirationConfig;
+import com.govindkulk.url_service.config.RedirectPolicyConfig;
+import com.govindkulk.url_service.dto.BatchCreateShortUrlResponse;
 import com.govindkulk.url_service.dto.CreateShortUrlResponse;
+import com.govindkulk.url_service.dto.RedirectTarget;
+import com.govindkulk.url_service.dto.UrlListSort;
+import com.govindkulk.url_service.dto.UrlMappingView;
+import com.govindkulk.url_service.dto.UrlPage;
+import com.govindkulk.url_service.dto.UrlPageCursor;
 import com.govindkulk.url_service.exception.UrlNotFoundException;
+import com.govindkulk.url_service.model.RedirectType;
 import com.govindkulk.url_service.model.UrlMapping;
 import com.govindkulk.url_service.repository.UrlMappingRepository;
+import com.govindkulk.url_service.stats.ClickStatsService;
 
 
 
@@ -21,24 +45,170 @@ public class UrlService {
     private final UrlMappingRepository urlMappingRepository;
 
     private final UrlShorteningService urlShorteningService;
+
+    private final RedirectCache redirectCache;
+
+    private final ClickCountAggregator clickCountAggregator;
+
+    private final ShortUrlFilter shortUrlFilter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final LinkExpirationConfig linkExpirationConfig;
+
+    private final RedirectPolicyConfig redirectPolicyConfig;
+
+    private final ClickStatsService clickStatsService;
+
+    // original_url is a varchar(255) column
+    private static final int MAX_ORIGINAL_URL_LENGTH = 255;
+
+    // Creates retried after losing a short_url race with a concurrent create
+    private static final int MAX_CREATE_ATTEMPTS = 3;
     
-    public UrlService(UrlMappingRepository urlMappingRepository, UrlShorteningService urlShorteningService) {
+    public UrlService(UrlMappingRepository urlMappingRepository, UrlShorteningService urlShorteningService, RedirectCache redirectCache, ClickCountAggregator clickCountAggregator, ShortUrlFilter shortUrlFilter, TransactionTemplate transactionTemplate, LinkExpirationConfig linkExpirationConfig, RedirectPolicyConfig redirectPolicyConfig, ClickStatsService clickStatsService) {
         this.urlMappingRepository = urlMappingRepository;
         this.urlShorteningService = urlShorteningService;
+        this.redirectCache = redirectCache;
+        this.clickCountAggregator = clickCountAggregator;
+        this.shortUrlFilter = shortUrlFilter;
+        this.transactionTemplate = transactionTemplate;
+        this.linkExpirationConfig = linkExpirationConfig;
+        this.redirectPolicyConfig = redirectPolicyConfig;
+        this.clickStatsService = clickStatsService;
+    }
+
+    /**
+     * Create a short url
+     * The code is inserted in its own transaction. If a concurrent create took the same
+     * code first (the filter may not have seen it yet, so generation skipped the query),
+     * the unique constraint on short_url rejects the insert; the code is then recorded
+     * in the filter so the next candidate is checked against the database, and a new
+     * one is generated, up to MAX_CREATE_ATTEMPTS times.
+     *
+     * @param ttl lifetime of the link, or null for the configured default
+     * @param redirectType redirect policy of the link, or null for the configured default
+     * @throws IllegalArgumentException if ttl is not positive or exceeds the configured maximum
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CreateShortUrlResponse createShortUrl(String originalUrl, Long userId, Duration ttl, RedirectType redirectType){
+
+        Duration lifetime = resolveTtl(ttl);
+        RedirectType type = resolveRedirectType(redirectType);
+
+        for(int attempt = 1; ; attempt++){
+            String shortUrl = urlShorteningService.generateShortUrl(originalUrl, userId);
+            LocalDateTime now = LocalDateTime.now();
+            UrlMapping urlMapping = new UrlMapping(originalUrl, shortUrl, userId, now, now.plus(lifetime), 0);
+            urlMapping.setRedirectType(type);
+            try {
+                transactionTemplate.executeWithoutResult(status -> urlMappingRepository.save(urlMapping));
+                return created(urlMapping);
+            } catch (DataIntegrityViolationException e) {
+                if(attempt == MAX_CREATE_ATTEMPTS){
+                    throw e;
+                }
+                // The conflicting row is committed, so the filter may now report it
+                shortUrlFilter.add(shortUrl);
+            }
+        }
+    }
+
+    /**
+     * Create short urls for a batch of original urls
+     * Codes are allocated in bulk and all rows are inserted in one transaction with
+     * JDBC batching. Invalid urls get an error entry without affecting the rest; if
+     * the batch insert hits a code taken concurrently, rows are retried one by one
+     * so only the conflicting item fails.
+     *
+     * @param ttl lifetime of every link in the batch, or null for the configured default
+     * @param redirectType redirect policy of every link in the batch, or null for the configured default
+     * @throws IllegalArgumentException if ttl is not positive or exceeds the configured maximum
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchCreateShortUrlResponse createShortUrls(List<String> originalUrls, Long userId, Duration ttl, RedirectType redirectType){
+
+        Duration lifetime = resolveTtl(ttl);
+        RedirectType type = resolveRedirectType(redirectType);
+
+        CreateShortUrlResponse[] results = new CreateShortUrlResponse[originalUrls.size()];
+        List<Integer> positions = new ArrayList<>(originalUrls.size());
+        List<String> validUrls = new ArrayList<>(originalUrls.size());
+        for(int i = 0; i < originalUrls.size(); i++){
+            String originalUrl = originalUrls.get(i);
+            String error = validateOriginalUrl(originalUrl);
+            if(error != null){
+                results[i] = CreateShortUrlResponse.error(originalUrl, error);
+            } else {
+                positions.add(i);
+                validUrls.add(originalUrl);
+            }
+        }
+
+        List<String> shortUrls = urlShorteningService.generateShortUrls(validUrls, userId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expirationDate = now.plus(lifetime);
+        List<UrlMapping> urlMappings = new ArrayList<>(validUrls.size());
+        for(int i = 0; i < validUrls.size(); i++){
+            UrlMapping urlMapping = new UrlMapping(validUrls.get(i), shortUrls.get(i), userId, now, expirationDate, 0);
+            urlMapping.setRedirectType(type);
+            urlMappings.add(urlMapping);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> urlMappingRepository.saveAll(urlMappings));
+            for(int i = 0; i < urlMappings.size(); i++){
+                results[positions.get(i)] = created(urlMappings.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            for(int i = 0; i < urlMappings.size(); i++){
+                UrlMapping failed = urlMappings.get(i);
+                // fresh instance: the one from the rolled back batch already has an id
+                UrlMapping retry = new UrlMapping(failed.getOriginalUrl(), failed.getShortUrl(), userId, now, expirationDate, 0);
+                retry.setRedirectType(type);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> urlMappingRepository.save(retry));
+                    results[positions.get(i)] = created(retry);
+                } catch (DataIntegrityViolationException conflict) {
+                    results[positions.get(i)] = CreateShortUrlResponse.error(retry.getOriginalUrl(), "Short url already exists");
+                }
+            }
+        }
+        return new BatchCreateShortUrlResponse(Arrays.asList(results));
     }
 
-    public CreateShortUrlResponse createShortUrl(String originalUrl, Long userId){
+    private CreateShortUrlResponse created(UrlMapping urlMapping){
+        shortUrlFilter.add(urlMapping.getShortUrl());
+        return CreateShortUrlResponse.success(urlMapping.getShortUrl(), urlMapping.getOriginalUrl(), urlMapping.getExpirationDate(), "Short url created successfully");
+    }
 
-        String shortUrl = urlShorteningService.generateShortUrl(originalUrl, userId);
+    private RedirectType resolveRedirectType(RedirectType redirectType){
+        return redirectType == null ? redirectPolicyConfig.getDefaultType() : redirectType;
+    }
 
-        if(urlMappingRepository.findByShortUrl(shortUrl).isPresent()){
-            CreateShortUrlResponse.error("Short url already exists");
+    private Duration resolveTtl(Duration ttl){
+        if(ttl == null){
+            return linkExpirationConfig.getDefaultTtl();
+        }
+        if(ttl.isNegative() || ttl.isZero() || ttl.compareTo(linkExpirationConfig.getMaxTtl()) > 0){
+            throw new IllegalArgumentException("Expiry must be positive and at most " + linkExpirationConfig.getMaxTtl());
         }
+        return ttl;
+    }
 
-        System.out.println("shortUrl: from service " + shortUrl);
-        UrlMapping urlMapping = new UrlMapping(originalUrl, shortUrl, userId, LocalDateTime.now(), LocalDateTime.now().plusDays(7), 0);
-        urlMappingRepository.save(urlMapping);
-        return CreateShortUrlResponse.success(shortUrl, originalUrl, "Short url created successfully");
+    private static String validateOriginalUrl(String originalUrl){
+        if(originalUrl == null || originalUrl.isBlank()){
+            return "Original URL is required";
+        }
+        if(originalUrl.length() > MAX_ORIGINAL_URL_LENGTH){
+            return "Original URL is too long";
+        }
+        try {
+            URI.create(originalUrl);
+        } catch (IllegalArgumentException e) {
+            return "Invalid URL";
+        }
+        return null;
     }
 
     public UrlMapping getOriginalUrlByShortUrlAndUserId(String shortUrl, Long userId){
@@ -59,15 +229,68 @@ public class UrlService {
         return urlMapping.get();
     }
 
+    /**
+     * Resolve the redirect target with a single projection query, served from the
+     * redirect cache when possible. Runs outside the class-level transaction so a
+     * cache hit never borrows a connection.
+     * Codes the ShortUrlFilter rules out are answered without touching the database.
+     * Expired links are treated as missing even before ExpiredLinkPurger deletes them.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<RedirectTarget> getRedirectTarget(String shortUrl){
+        if(!shortUrlFilter.mightResolve(shortUrl)){
+            return Optional.empty();
+        }
+        RedirectTarget target = redirectCache.get(shortUrl,
+                key -> urlMappingRepository.findRedirectTargetByShortUrl(key).orElse(null));
+        if(target == null || target.isExpired(LocalDateTime.now())){
+            return Optional.empty();
+        }
+        return Optional.of(target);
+    }
+
+    /**
+     * Buffer a click; the count is written to the database by ClickCountAggregator's periodic flush
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void updateClickCount(String shortUrl){
-        UrlMapping urlMapping = getOriginalUrlByShortUrl(shortUrl);
-        urlMapping.setClickCount(urlMapping.getClickCount() + 1);
-        urlMappingRepository.save(urlMapping);
+        clickCountAggregator.increment(shortUrl);
     }
 
+    /**
+     * One keyset page of a user's links
+     * Fetches one extra row to tell whether another page follows, so the cost is
+     * independent of how deep into the list the cursor points.
+     */
+    @Transactional(readOnly = true)
+    public UrlPage getUrlPage(Long userId, UrlPageCursor cursor, int limit, UrlListSort sort){
+
+        Limit fetch = Limit.of(limit + 1);
+        List<UrlMappingView> rows = switch (sort) {
+            case NEWEST -> cursor == null
+                    ? urlMappingRepository.findNewestByUserId(userId, fetch)
+                    : urlMappingRepository.findNewestByUserIdBefore(userId, cursor.createdAt(), cursor.id(), fetch);
+            case OLDEST -> cursor == null
+                    ? urlMappingRepository.findOldestByUserId(userId, fetch)
+                    : urlMappingRepository.findOldestByUserIdAfter(userId, cursor.createdAt(), cursor.id(), fetch);
+        };
+
+        if (rows.size() <= limit) {
+            return new UrlPage(rows, null);
+        }
+        List<UrlMappingView> page = rows.subList(0, limit);
+        return new UrlPage(page, UrlPageCursor.after(page.get(limit - 1)).encode());
+    }
 
-    public List<UrlMapping> getAllUrlsByUserId(Long userId){
-        return urlMappingRepository.findByUserId(userId);
+    /**
+     * Hand every link of a user to the consumer as rows arrive from a database cursor
+     * Nothing is accumulated, so memory stays flat however many links the user owns.
+     */
+    @Transactional(readOnly = true)
+    public void streamUrlsByUserId(Long userId, Consumer<UrlMappingView> consumer){
+        try (Stream<UrlMappingView> urls = urlMappingRepository.streamByUserId(userId)) {
+            urls.forEach(consumer);
+        }
     }
 
     public void deleteUrl(String shortUrl, Long userId){
@@ -78,6 +301,28 @@ public class UrlService {
             throw new UrlNotFoundException("Url not found");
         }   
         urlMappingRepository.deleteByShortUrlAndUserId(shortUrl, userId);
+        afterCommit(() -> {
+            redirectCache.invalidate(shortUrl);
+            shortUrlFilter.remove(shortUrl);
+            clickStatsService.forget(List.of(shortUrl));
+        });
+    }
+
+    /**
+     * Run an in-memory update once the current transaction has committed, so
+     * caches never reflect a write that is later rolled back
+     */
+    private static void afterCommit(Runnable action){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
 
@@ -1,16 +1,20 @@
 package com.govindkulk.url_service.service;
 
-import com.govindkulk.url_service.model.UrlMapping;
+import com.govindkulk.url_service.cache.ShortUrlFilter;
+import com.govindkulk.url_service.config.ShortCodeConfig;
+import com.govindkulk.url_service.shortcode.Base62;
+import com.govindkulk.url_service.shortcode.HashShortCodeGenerator;
+import com.govindkulk.url_service.shortcode.SequenceShortCodeGenerator;
+import com.govindkulk.url_service.shortcode.ShortCodePool;
 import com.govindkulk.url_service.repository.UrlMappingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigInteger;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class UrlShorteningService {
@@ -18,8 +22,18 @@ public class UrlShorteningService {
     @Autowired
     private UrlMappingRepository urlMappingRepository;
 
-    // Base62 characters for encoding (0-9, A-Z, a-z)
-    private static final String BASE62_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    @Autowired
+    private ShortUrlFilter shortUrlFilter;
+
+    @Autowired
+    private ShortCodeConfig shortCodeConfig;
+
+    @Autowired
+    private SequenceShortCodeGenerator sequenceShortCodeGenerator;
+
+    @Autowired
+    private ShortCodePool shortCodePool;
+
     private static final int SHORT_URL_LENGTH = 6; // 6 characters for short URL
     private static final int MAX_ATTEMPTS = 10;
     private static final int MAX_URL_LENGTH = 8;
@@ -30,11 +44,20 @@ public class UrlShorteningService {
      * This is the primary method that should be used
      */
     public String generateShortUrl(String originalUrl, Long userId) {
+        if (shortCodeConfig.getStrategy() == ShortCodeConfig.Strategy.SEQUENCE) {
+            return generateSequenceShortUrl();
+        }
+        if (shortCodeConfig.getStrategy() == ShortCodeConfig.Strategy.POOL) {
+            String pooled = shortCodePool.take();
+            // Pool momentarily empty: fall back to generating one on this thread
+            return pooled != null ? pooled : generateRandomShortUrl(SHORT_URL_LENGTH);
+        }
+
         // Strategy 1: Try hash-based approach first (most efficient)
-        String shortUrl = generateHashBasedShortUrl(originalUrl.concat(userId.toString()));
+        String shortUrl = generateHashBasedShortUrl(originalUrl, userId);
         
         // If hash-based fails due to collision, try random generation
-        if (shortUrl == null || !isShortUrlUnique(shortUrl))  {
+        if (shortUrl == null)  {
             shortUrl = generateRandomShortUrl(SHORT_URL_LENGTH);
         }
 
@@ -43,80 +66,85 @@ public class UrlShorteningService {
     }
 
     /**
-     * Generate short URL using hash of original URL
-     * This ensures same URL always gets same short code (idempotent)
+     * Generate short URLs for a batch of original URLs, in order
+     * Hash candidates are checked together: the in-memory filter first, then one
+     * query for all "maybe taken" codes. Candidates that are taken, or repeated
+     * within the batch, fall back to random generation.
      */
-    private String generateHashBasedShortUrl(String originalUrl) {
-        try {
-            // Create hash of original URL
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = md.digest(originalUrl.getBytes());
-
-            System.out.println("hashBytes: " + hashBytes.toString());
-            
-            // Convert to base62
-            String shortUrl = bytesToBase62(hashBytes, SHORT_URL_LENGTH);
-
-            System.out.println("shortUrl: " + shortUrl);
-            
-            // Check for collision
-            if (isShortUrlUnique(shortUrl)) {
-                return shortUrl;
+    public List<String> generateShortUrls(List<String> originalUrls, Long userId) {
+        List<String> shortUrls = new ArrayList<>(originalUrls.size());
+        if (shortCodeConfig.getStrategy() != ShortCodeConfig.Strategy.HASH) {
+            // Sequence and pool codes are already unique and cost no query
+            for (String originalUrl : originalUrls) {
+                shortUrls.add(generateShortUrl(originalUrl, userId));
             }
+            return shortUrls;
+        }
 
-            System.out.println("collision for " +  originalUrl);
-            
-            // If collision, try with different length
-            return bytesToBase62(hashBytes, SHORT_URL_LENGTH + 1);
-            
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Hash algorithm not available", e);
+        List<String> candidates = new ArrayList<>(originalUrls.size());
+        List<String> maybeTaken = new ArrayList<>();
+        for (String originalUrl : originalUrls) {
+            String candidate = HashShortCodeGenerator.generate(originalUrl, userId, SHORT_URL_LENGTH);
+            candidates.add(candidate);
+            if (shortUrlFilter.mightContain(candidate)) {
+                maybeTaken.add(candidate);
+            }
+        }
+        Set<String> taken = maybeTaken.isEmpty()
+                ? Set.of()
+                : new HashSet<>(urlMappingRepository.findExistingShortUrls(maybeTaken));
+
+        Set<String> assigned = new HashSet<>(candidates.size() * 2);
+        for (String candidate : candidates) {
+            String shortUrl = candidate;
+            while (taken.contains(shortUrl) || !assigned.add(shortUrl)) {
+                shortUrl = generateRandomShortUrl(SHORT_URL_LENGTH);
+            }
+            shortUrls.add(shortUrl);
         }
+        return shortUrls;
     }
 
-    
-
     /**
-     * Convert byte array to base62 string
+     * Generate short URL from a leased block of sequence ids
+     * Sequence codes never repeat, so the check only matters for tables that also
+     * hold codes from the hash/random strategies, and the in-memory filter answers
+     * it without a query in almost every case
      */
-    private String bytesToBase62(byte[] bytes, int length) {
-
-        if(length > MAX_URL_LENGTH){
-            return null;
-        }
-        StringBuilder result = new StringBuilder();
-        
-        // Convert bytes to a large number
-        BigInteger bigint = new BigInteger(1, bytes);
-        System.out.println("bigint: " + bigint.toString());
-        while(bigint.compareTo(BigInteger.ZERO) > 0){   
-            int index = bigint.mod(BigInteger.valueOf(62)).intValue();
-            result.append(BASE62_CHARS.charAt(index));
-            bigint = bigint.divide(BigInteger.valueOf(62));
+    private String generateSequenceShortUrl() {
+        String shortUrl = sequenceShortCodeGenerator.next();
+        while (!isShortUrlUnique(shortUrl)) {
+            shortUrl = sequenceShortCodeGenerator.next();
         }
-        System.out.println("bigint: " + bigint.toString());
-       
-        
-        
-        // Pad with zeros if needed
-        while (result.length() < length) {
-            result.insert(0, '0');
-        }
-        
-        // Truncate if too long
-        if (result.length() > length) {
-            return result.substring(0, length);
+        return shortUrl;
+    }
+
+    /**
+     * Generate short URL using hash of original URL
+     * This ensures same URL always gets same short code (idempotent)
+     * Returns null if both hash lengths are already taken
+     */
+    private String generateHashBasedShortUrl(String originalUrl, Long userId) {
+        String shortUrl = HashShortCodeGenerator.generate(originalUrl, userId, SHORT_URL_LENGTH);
+        if (isShortUrlUnique(shortUrl)) {
+            return shortUrl;
         }
-        
-        return result.toString();
+
+        // If collision, try with different length
+        shortUrl = HashShortCodeGenerator.generate(originalUrl, userId, SHORT_URL_LENGTH + 1);
+        return isShortUrlUnique(shortUrl) ? shortUrl : null;
     }
 
     /**
-     * Check if short URL is unique in database
+     * Check if short URL is unique
+     * A "definitely absent" answer from the in-memory filter skips the database;
+     * only "maybe taken" answers are confirmed with a query
      */
     private boolean isShortUrlUnique(String shortUrl) {
-        Optional<UrlMapping> existing = urlMappingRepository.findByShortUrl(shortUrl);
-        return existing.isEmpty();
+        if (!shortUrlFilter.mightContain(shortUrl)) {
+            return true;
+        }
+        return !urlMappingRepository.existsByShortUrl(shortUrl);
     }
 
 
@@ -131,16 +159,15 @@ public class UrlShorteningService {
         
         int attempts = 0;
         
+        char[] shortUrl = new char[length];
+
         while (attempts < MAX_ATTEMPTS) {
-            StringBuilder shortUrl = new StringBuilder();
-            
             // Generate random base62 string
-            for (int i = 0; i < SHORT_URL_LENGTH; i++) {
-                int randomIndex = SECURE_RANDOM.nextInt(BASE62_CHARS.length());
-                shortUrl.append(BASE62_CHARS.charAt(randomIndex));
+            for (int i = 0; i < length; i++) {
+                shortUrl[i] = Base62.ALPHABET.charAt(SECURE_RANDOM.nextInt(Base62.ALPHABET.length()));
             }
             
-            String generatedUrl = shortUrl.toString();
+            String generatedUrl = new String(shortUrl);
             
             // Check if unique
             if (isShortUrlUnique(generatedUrl)) {
@@ -151,6 +178,6 @@ public class UrlShorteningService {
         }
         
         // If still not unique, increase length
-        return generateRandomShortUrl(SHORT_URL_LENGTH + 1);
+        return generateRandomShortUrl(length + 1);
     }
 }
@@ -0,0 +1,63 @@
+package com.govindkulk.url_service.shortcode;
+
+/**
+ * Base62 encoding of non-negative numbers using primitive arithmetic
+ * Alphabet: 0-9, A-Z, a-z
+ */
+public final class Base62 {
+
+    public static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    public static final int MAX_LENGTH = 11; // 62^11 > 2^64
+
+    private static final char[] DIGITS = ALPHABET.toCharArray();
+    private static final long[] POWERS = new long[MAX_LENGTH];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < MAX_LENGTH; i++) {
+            POWERS[i] = POWERS[i - 1] * 62; // 62^10 still fits in a long
+        }
+    }
+
+    private Base62() {
+    }
+
+    /**
+     * Encode the value, read as unsigned, left-padded with '0' to at least minLength characters
+     */
+    public static String encode(long value, int minLength) {
+        char[] buf = new char[Math.max(MAX_LENGTH, minLength)];
+        int pos = buf.length;
+        if (value < 0) {
+            buf[--pos] = DIGITS[(int) Long.remainderUnsigned(value, 62)];
+            value = Long.divideUnsigned(value, 62);
+        }
+        while (value > 0) {
+            buf[--pos] = DIGITS[(int) (value % 62)];
+            value /= 62;
+        }
+        while (buf.length - pos < minLength) {
+            buf[--pos] = '0';
+        }
+        return new String(buf, pos, buf.length - pos);
+    }
+
+    /**
+     * Write exactly length digits of the value (read as unsigned, reduced modulo 62^length)
+     * into buf starting at offset; no allocation
+     */
+    public static void encodeFixed(long value, int length, char[] buf, int offset) {
+        if (length < MAX_LENGTH) {
+            value = Long.remainderUnsigned(value, POWERS[length]);
+        } else if (value < 0) {
+            // Only the 11-digit case can see the sign bit; one unsigned step clears it
+            buf[offset + length - 1] = DIGITS[(int) Long.remainderUnsigned(value, 62)];
+            value = Long.divideUnsigned(value, 62);
+            length--;
+        }
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buf[i] = DIGITS[(int) (value % 62)];
+            value /= 62;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.govindkulk.url_service.shortcode;
+
+/**
+ * Non-cryptographic 64-bit hashing of strings without allocation.
+ * Murmur3-style mixing over the UTF-16 chars, four chars per 64-bit block.
+ */
+public final class FastHash {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private FastHash() {
+    }
+
+    public static long hash64(CharSequence s, long seed) {
+        int length = s.length();
+        long h = seed ^ (length * C1);
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            long block = s.charAt(i)
+                    | (long) s.charAt(i + 1) << 16
+                    | (long) s.charAt(i + 2) << 32
+                    | (long) s.charAt(i + 3) << 48;
+            h = mixBlock(h, block);
+        }
+        if (i < length) {
+            long tail = 0;
+            for (int shift = 0; i < length; i++, shift += 16) {
+                tail |= (long) s.charAt(i) << shift;
+            }
+            h = mixBlock(h, tail);
+        }
+        return fmix64(h);
+    }
+
+    /**
+     * Hash a string together with a number, as if the number were appended to it
+     */
+    public static long hash64(CharSequence s, long value, long seed) {
+        return fmix64(mixBlock(hash64(s, seed), value));
+    }
+
+    public static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long mixBlock(long h, long block) {
+        block *= C1;
+        block = Long.rotateLeft(block, 31);
+        block *= C2;
+        h ^= block;
+        h = Long.rotateLeft(h, 27);
+        return h * 5 + 0x52dce729;
+    }
+}
@@ -0,0 +1,23 @@
+package com.govindkulk.url_service.shortcode;
+
+/**
+ * Hash Short Code Generator
+ *
+ * Derives a short code from (originalUrl, userId) so the same input always maps
+ * to the same code. Uses a 64-bit {@link FastHash} seeded with the code length,
+ * so the 6- and 7-character candidates are independent of each other, and
+ * encodes it into a small local buffer, which escape analysis keeps off the heap;
+ * unlike a ThreadLocal it costs no lookup and stays cheap on virtual threads.
+ */
+public final class HashShortCodeGenerator {
+
+    private HashShortCodeGenerator() {
+    }
+
+    public static String generate(String originalUrl, long userId, int length) {
+        long hash = FastHash.hash64(originalUrl, userId, length);
+        char[] buf = new char[Base62.MAX_LENGTH];
+        Base62.encodeFixed(hash, length, buf, 0);
+        return new String(buf, 0, length);
+    }
+}
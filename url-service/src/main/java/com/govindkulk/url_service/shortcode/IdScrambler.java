@@ -0,0 +1,48 @@
+package com.govindkulk.url_service.shortcode;
+
+/**
+ * Keyed bijective permutation of ids, used so sequential ids don't produce
+ * guessable sequential codes.
+ *
+ * A 4-round Feistel network over an even number of bits is a permutation of
+ * [0, 2^bits), so distinct ids always map to distinct values in the same range.
+ */
+public final class IdScrambler {
+
+    private static final int ROUNDS = 4;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public IdScrambler(long key) {
+        long k = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            k = mix(k + 0x9E3779B97F4A7C15L);
+            roundKeys[i] = k;
+        }
+    }
+
+    /**
+     * Permute a value in [0, 2^bits); bits must be even and at most 64
+     */
+    public long scramble(long value, int bits) {
+        int half = bits / 2;
+        long mask = half == 32 ? 0xFFFFFFFFL : (1L << half) - 1;
+        long left = (value >>> half) & mask;
+        long right = value & mask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & mask);
+            left = right;
+            right = next;
+        }
+        return (left << half) | right;
+    }
+
+    private static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
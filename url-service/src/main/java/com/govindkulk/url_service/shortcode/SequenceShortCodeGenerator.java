@@ -0,0 +1,116 @@
+package com.govindkulk.url_service.shortcode;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.url_service.config.ShortCodeConfig;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Sequence Short Code Generator
+ *
+ * Hi/lo allocator: each instance leases a block of ids with a single nextval on
+ * short_code_seq and hands them out from memory, so replicas never hand out the
+ * same id and never coordinate beyond the lease.
+ *
+ * Key Features:
+ * - Ids within a block are handed out with one atomic increment; only the thread
+ *   that finds the block exhausted takes the lease lock
+ * - Ids are optionally scrambled with {@link IdScrambler} before base62 encoding
+ * - Codes are 6 characters for the first 2^34 ids and grow by one character per
+ *   6 extra bits; each length has its own permutation domain, so codes of
+ *   different lengths can never collide
+ */
+@Component
+public class SequenceShortCodeGenerator {
+
+    static final String SEQUENCE_NAME = "short_code_seq";
+
+    private static final int MIN_BITS = 34;   // 2^34 < 62^6
+    private static final int BITS_PER_CHAR = 6;
+    private static final int MIN_LENGTH = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShortCodeConfig config;
+    private final IdScrambler scrambler;
+    private final String nextValSql;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    private volatile Block block = new Block(0, 0);
+    private volatile boolean sequenceCreated;
+
+    @Autowired
+    public SequenceShortCodeGenerator(JdbcTemplate jdbcTemplate, ShortCodeConfig config,
+            EntityManagerFactory entityManagerFactory) {
+        this(jdbcTemplate, config, entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE_NAME));
+    }
+
+    SequenceShortCodeGenerator(JdbcTemplate jdbcTemplate, ShortCodeConfig config, String nextValSql) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.scrambler = new IdScrambler(config.getScrambleKey());
+        this.nextValSql = nextValSql;
+    }
+
+    public String next() {
+        return encode(nextId());
+    }
+
+    long nextId() {
+        while (true) {
+            Block current = block;
+            long id = current.next.getAndIncrement();
+            if (id < current.end) {
+                return id;
+            }
+            lease(current);
+        }
+    }
+
+    String encode(long id) {
+        int bits = MIN_BITS;
+        while (bits < 64 && (id >>> bits) != 0) {
+            bits += BITS_PER_CHAR;
+        }
+        int length = MIN_LENGTH + (bits - MIN_BITS) / BITS_PER_CHAR;
+        long value = config.isScramble() ? scrambler.scramble(id, bits) : id;
+        return Base62.encode(value, length);
+    }
+
+    private void lease(Block exhausted) {
+        leaseLock.lock();
+        try {
+            if (block != exhausted) {
+                return; // another thread already leased a fresh block
+            }
+            if (!sequenceCreated) {
+                jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE_NAME);
+                sequenceCreated = true;
+            }
+            long hi = jdbcTemplate.queryForObject(nextValSql, Long.class);
+            long start = hi * config.getBlockSize();
+            block = new Block(start, start + config.getBlockSize());
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private static final class Block {
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
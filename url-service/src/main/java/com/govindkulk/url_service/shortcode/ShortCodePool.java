@@ -0,0 +1,227 @@
+package com.govindkulk.url_service.shortcode;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.url_service.cache.ShortUrlFilter;
+import com.govindkulk.url_service.config.ShortCodeConfig;
+import com.govindkulk.url_service.repository.UrlMappingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Short Code Pool
+ *
+ * Keeps a queue of random short codes that are known to be unused and reserved
+ * for this instance, so creating a link just takes one from memory.
+ *
+ * Key Features:
+ * - A single background thread generates codes in bulk, checks them against
+ *   ShortUrlFilter/url_mapping and reserves them in short_code_pool, whose primary
+ *   key keeps two instances from reserving the same code
+ * - Refill is triggered when the queue drops below the low watermark
+ * - Reservations are purged once the code shows up in url_mapping, and codes still
+ *   queued at shutdown are released
+ * - Each reservation is a lease: the cleanup pass renews this instance's rows and
+ *   deletes rows not renewed within pool-lease, so codes reserved by an instance
+ *   that crashed or was killed return to circulation
+ * - Pool depth and misses (empty queue on take) are exported as metrics
+ *
+ * Only active when short-code.strategy is POOL.
+ */
+@Component
+public class ShortCodePool {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortCodePool.class);
+
+    private static final String RESERVE_SQL =
+            "INSERT INTO short_code_pool (code, reserved_at, reserved_by) VALUES (?, ?, ?)";
+    private static final String RELEASE_SQL = "DELETE FROM short_code_pool WHERE code = ?";
+    private static final String RENEW_SQL = "UPDATE short_code_pool SET reserved_at = ? WHERE reserved_by = ?";
+    private static final String PURGE_USED_SQL = "DELETE FROM short_code_pool p "
+            + "WHERE EXISTS (SELECT 1 FROM url_mapping m WHERE m.short_url = p.code)";
+    private static final String PURGE_EXPIRED_SQL = "DELETE FROM short_code_pool WHERE reserved_at < ?";
+
+    private static final int CODE_LENGTH = 6;
+    private static final int RESERVE_BATCH = 500;
+
+    private final ShortCodeConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShortUrlFilter shortUrlFilter;
+    private final UrlMappingRepository urlMappingRepository;
+    private final BlockingQueue<String> codes;
+    private final ExecutorService refillExecutor;
+    private final AtomicBoolean refillPending = new AtomicBoolean();
+    private final SecureRandom random = new SecureRandom();
+    // Identifies this instance's reservations for lease renewal
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Counter misses;
+
+    public ShortCodePool(ShortCodeConfig config, JdbcTemplate jdbcTemplate, ShortUrlFilter shortUrlFilter,
+            UrlMappingRepository urlMappingRepository, MeterRegistry meterRegistry, Environment environment) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shortUrlFilter = shortUrlFilter;
+        this.urlMappingRepository = urlMappingRepository;
+        this.codes = new ArrayBlockingQueue<>(config.getPoolCapacity());
+        // Follows spring.threads.virtual.enabled like the rest of the application's threads
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("short-code-pool-", 0).factory()
+                : new CustomizableThreadFactory("short-code-pool-");
+        this.refillExecutor = Executors.newSingleThreadExecutor(threadFactory);
+        Gauge.builder("url.code.pool.depth", codes, BlockingQueue::size)
+                .description("Reserved short codes ready to be handed out")
+                .register(meterRegistry);
+        this.misses = Counter.builder("url.code.pool.misses")
+                .description("Creates that found the short code pool empty")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return a reserved, unused code, or null if the pool is empty right now
+     */
+    public String take() {
+        String code = codes.poll();
+        if (code == null) {
+            misses.increment();
+        }
+        if (codes.size() < config.getPoolLowWatermark()) {
+            requestRefill();
+        }
+        return code;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (isActive()) {
+            requestRefill();
+        }
+    }
+
+    /**
+     * Renew this instance's leases, then drop reservations whose code is now in
+     * url_mapping and those whose owner stopped renewing them
+     */
+    @Scheduled(fixedDelayString = "${short-code.pool-cleanup-interval-ms:600000}")
+    public void cleanUp() {
+        if (!isActive()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(RENEW_SQL, Timestamp.valueOf(now), instanceId);
+        jdbcTemplate.update(PURGE_USED_SQL);
+        int expired = jdbcTemplate.update(PURGE_EXPIRED_SQL, Timestamp.valueOf(now.minus(config.getPoolLease())));
+        if (expired > 0) {
+            log.info("Purged {} short code reservations whose lease expired", expired);
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        refillExecutor.shutdownNow();
+        List<String> unused = new ArrayList<>();
+        codes.drainTo(unused);
+        if (unused.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(RELEASE_SQL, unused, RESERVE_BATCH, (ps, code) -> ps.setString(1, code));
+        } catch (DataAccessException e) {
+            log.warn("Failed to release {} reserved short codes: {}", unused.size(), e.getMessage());
+        }
+    }
+
+    private boolean isActive() {
+        return config.getStrategy() == ShortCodeConfig.Strategy.POOL;
+    }
+
+    private void requestRefill() {
+        if (refillPending.compareAndSet(false, true)) {
+            refillExecutor.execute(this::refill);
+        }
+    }
+
+    private void refill() {
+        try {
+            int missing = codes.remainingCapacity();
+            while (missing > 0 && !Thread.currentThread().isInterrupted()) {
+                List<String> reserved = reserve(Math.min(missing, RESERVE_BATCH));
+                codes.addAll(reserved);
+                missing -= reserved.size();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Short code pool refill failed: {}", e.getMessage());
+        } finally {
+            refillPending.set(false);
+        }
+    }
+
+    private List<String> reserve(int count) {
+        Set<String> candidates = new LinkedHashSet<>(count * 2);
+        while (candidates.size() < count) {
+            String code = randomCode();
+            if (!shortUrlFilter.mightContain(code) || !urlMappingRepository.existsByShortUrl(code)) {
+                candidates.add(code);
+            }
+        }
+        List<String> batch = new ArrayList<>(candidates);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(RESERVE_SQL, batch, RESERVE_BATCH, (ps, code) -> {
+                ps.setString(1, code);
+                ps.setTimestamp(2, now);
+                ps.setString(3, instanceId);
+            });
+            return batch;
+        } catch (DuplicateKeyException e) {
+            // Another instance reserved one of these codes; keep the rest one by one
+            List<String> reserved = new ArrayList<>(batch.size());
+            for (String code : batch) {
+                try {
+                    jdbcTemplate.update(RESERVE_SQL, code, now, instanceId);
+                    reserved.add(code);
+                } catch (DuplicateKeyException ignored) {
+                    // taken
+                }
+            }
+            return reserved;
+        }
+    }
+
+    private String randomCode() {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            code[i] = Base62.ALPHABET.charAt(random.nextInt(Base62.ALPHABET.length()));
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,55 @@
+package com.govindkulk.url_service.stats;
+
+/**
+ * Fixed window of the most recent buckets of one granularity, indexed by bucket
+ * number (epoch millis / bucket size) modulo the window size. Moving the newest
+ * bucket forward clears the slots it reuses, so the ring always holds exactly the
+ * buckets (head - size, head]; later buckets are zero. Not thread-safe.
+ */
+final class BucketRing {
+
+    private final long[] counts;
+    private long head;
+
+    BucketRing(int size, long head) {
+        this.counts = new long[Math.max(1, size)];
+        this.head = head;
+    }
+
+    /**
+     * Add clicks to a bucket; a bucket older than the window is ignored
+     */
+    void add(long bucket, long clicks) {
+        if (bucket > head) {
+            for (long b = Math.max(head + 1, bucket - counts.length + 1); b <= bucket; b++) {
+                counts[slot(b)] = 0;
+            }
+            head = bucket;
+        } else if (bucket <= head - counts.length) {
+            return;
+        }
+        counts[slot(bucket)] += clicks;
+    }
+
+    /**
+     * @return whether every bucket from the given one onwards is in the window
+     */
+    boolean covers(long bucket) {
+        return bucket > head - counts.length;
+    }
+
+    long get(long bucket) {
+        return bucket > head || bucket <= head - counts.length ? 0 : counts[slot(bucket)];
+    }
+
+    /**
+     * @return the oldest bucket in the window
+     */
+    long first() {
+        return head - counts.length + 1;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) counts.length);
+    }
+}
@@ -0,0 +1,161 @@
+package com.govindkulk.url_service.stats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.govindkulk.url_service.model.StatsGranularity;
+
+/**
+ * Click Rollup Store
+ *
+ * JDBC access to the click_rollup and click_rollup_offset tables.
+ *
+ * Key Features:
+ * - A batch of bucket increments and the click log position it reaches are
+ *   written in one transaction: an UPDATE of existing rows, then an INSERT of the
+ *   missing ones, guarded so clicks on a link deleted meanwhile leave no rows
+ * - Increments are applied in key order so concurrent instances lock rows in the
+ *   same order
+ * - Reads are range scans of the (short_url, granularity, bucket_start) primary key
+ */
+@Component
+public class ClickRollupStore {
+
+    private static final String OFFSET_SQL = "SELECT position FROM click_rollup_offset WHERE log_id = ?";
+    private static final String UPDATE_OFFSET_SQL = "UPDATE click_rollup_offset SET position = ? WHERE log_id = ?";
+    private static final String INSERT_OFFSET_SQL = "INSERT INTO click_rollup_offset (log_id, position) VALUES (?, ?)";
+    private static final String INCREMENT_SQL = "UPDATE click_rollup SET clicks = clicks + ? "
+            + "WHERE short_url = ? AND granularity = ? AND bucket_start = ?";
+    private static final String INSERT_SQL = "INSERT INTO click_rollup (short_url, granularity, bucket_start, clicks) "
+            + "SELECT ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM url_mapping WHERE short_url = ?)";
+    private static final String WINDOWS_SQL = "SELECT granularity, bucket_start, clicks FROM click_rollup WHERE short_url = ? "
+            + "AND ((granularity = 'MINUTE' AND bucket_start >= ?) OR (granularity = 'HOUR' AND bucket_start >= ?) "
+            + "OR (granularity = 'DAY' AND bucket_start >= ?))";
+    private static final String RANGE_SQL = "SELECT bucket_start, clicks FROM click_rollup "
+            + "WHERE short_url = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ?";
+    private static final String OWNER_SQL = "SELECT user_id FROM url_mapping WHERE short_url = ?";
+    private static final String DELETE_SQL = "DELETE FROM click_rollup WHERE short_url IN (:shortUrls)";
+    private static final String PURGE_SQL = "DELETE FROM click_rollup WHERE granularity = ? AND bucket_start < ?";
+
+    /**
+     * One bucket of one link
+     */
+    public record Key(String shortUrl, StatsGranularity granularity, long bucketStart) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int c = shortUrl.compareTo(other.shortUrl);
+            if (c == 0) {
+                c = granularity.compareTo(other.granularity);
+            }
+            return c != 0 ? c : Long.compare(bucketStart, other.bucketStart);
+        }
+    }
+
+    /**
+     * Receives rows of a link's rollups
+     */
+    public interface RowHandler {
+        void handle(StatsGranularity granularity, long bucketStart, long clicks);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ClickRollupStore(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+            TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @return the last click log position applied for this log, -1 if none
+     */
+    public long offset(String logId) {
+        List<Long> positions = jdbcTemplate.queryForList(OFFSET_SQL, Long.class, logId);
+        return positions.isEmpty() ? -1 : positions.get(0);
+    }
+
+    /**
+     * Add the increments and record the log position in one transaction
+     */
+    public void apply(SortedMap<Key, Long> increments, String logId, long position) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> updates = new ArrayList<>(increments.size());
+            List<Map.Entry<Key, Long>> entries = new ArrayList<>(increments.entrySet());
+            for (Map.Entry<Key, Long> entry : entries) {
+                Key key = entry.getKey();
+                updates.add(new Object[] { entry.getValue(), key.shortUrl(), key.granularity().name(), key.bucketStart() });
+            }
+            int[] updated = jdbcTemplate.batchUpdate(INCREMENT_SQL, updates);
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    Key key = entries.get(i).getKey();
+                    inserts.add(new Object[] { key.shortUrl(), key.granularity().name(), key.bucketStart(),
+                            entries.get(i).getValue(), key.shortUrl() });
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            if (jdbcTemplate.update(UPDATE_OFFSET_SQL, position, logId) == 0) {
+                jdbcTemplate.update(INSERT_OFFSET_SQL, logId, position);
+            }
+        });
+    }
+
+    /**
+     * Stream a link's rollups from the given bucket starts onwards, one per granularity
+     */
+    public void load(String shortUrl, long minutesFrom, long hoursFrom, long daysFrom, RowHandler handler) {
+        jdbcTemplate.query(WINDOWS_SQL, (RowCallbackHandler) rs -> handler.handle(
+                StatsGranularity.valueOf(rs.getString(1)), rs.getLong(2), rs.getLong(3)),
+                shortUrl, minutesFrom, hoursFrom, daysFrom);
+    }
+
+    /**
+     * @return clicks per bucket for count buckets starting at from
+     */
+    public long[] range(String shortUrl, StatsGranularity granularity, long from, int count) {
+        long[] clicks = new long[count];
+        long millis = granularity.getMillis();
+        jdbcTemplate.query(RANGE_SQL, (RowCallbackHandler) rs -> clicks[(int) ((rs.getLong(1) - from) / millis)] = rs.getLong(2),
+                shortUrl, granularity.name(), from, from + count * millis);
+        return clicks;
+    }
+
+    /**
+     * @return the owner of the link, null if it does not exist
+     */
+    public Long ownerOf(String shortUrl) {
+        List<Long> owners = jdbcTemplate.queryForList(OWNER_SQL, Long.class, shortUrl);
+        return owners.isEmpty() ? null : owners.get(0);
+    }
+
+    public void delete(Collection<String> shortUrls) {
+        if (!shortUrls.isEmpty()) {
+            namedJdbcTemplate.update(DELETE_SQL, Map.of("shortUrls", shortUrls));
+        }
+    }
+
+    /**
+     * Delete rows of the granularity whose bucket started before the given time
+     *
+     * @return the number of rows deleted
+     */
+    public int purge(StatsGranularity granularity, long before) {
+        return jdbcTemplate.update(PURGE_SQL, granularity.name(), before);
+    }
+}
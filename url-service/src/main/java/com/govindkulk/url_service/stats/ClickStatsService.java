@@ -0,0 +1,273 @@
+package com.govindkulk.url_service.stats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.govindkulk.url_service.clicklog.ClickEvent;
+import com.govindkulk.url_service.clicklog.ClickEventListener;
+import com.govindkulk.url_service.clicklog.ClickEventLog;
+import com.govindkulk.url_service.config.ClickStatsConfig;
+import com.govindkulk.url_service.dto.ClickStatsResponse;
+import com.govindkulk.url_service.exception.UrlNotFoundException;
+import com.govindkulk.url_service.model.StatsGranularity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Click Stats Service
+ *
+ * Per-link click counts in minute, hour and day buckets, maintained incrementally
+ * from the click log so that a stats query never reads raw clicks.
+ *
+ * Key Features:
+ * - Each batch from {@link com.govindkulk.url_service.clicklog.ClickLogConsumer}
+ *   becomes one increment per (link, granularity, bucket) in click_rollup, written
+ *   together with the batch's log position; redelivered clicks at or below that
+ *   position are skipped, so every click is counted once
+ * - Recently queried links keep their latest buckets in memory (click-stats.*-window)
+ *   in {@link BucketRing}s loaded from the table and advanced with every batch, so
+ *   dashboards polling recent windows do not touch the database
+ * - A link's windows are reloaded every click-stats.refresh-interval, which picks up
+ *   clicks counted by other instances and re-checks the owner
+ * - Older ranges are read from the table with one primary key range scan
+ * - Minute rows are kept for click-stats.minute-retention and hour rows for
+ *   click-stats.hour-retention; day rows live as long as the link
+ */
+@Component
+public class ClickStatsService implements ClickEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickStatsService.class);
+
+    public static final String CACHE_NAME = "click-stats";
+
+    private static final StatsGranularity[] GRANULARITIES = StatsGranularity.values();
+
+    private final ClickStatsConfig config;
+    private final ClickRollupStore store;
+    private final ClickEventLog clickEventLog;
+    private final Cache<String, LinkStats> links;
+
+    // Held while a batch is written and applied to the windows, and while windows are
+    // loaded, so a load never sees a batch in the table that is then added again
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private long appliedPosition = -1; // guarded by applyLock; -1 until read from the table
+
+    public ClickStatsService(ClickStatsConfig config, ClickRollupStore store, ClickEventLog clickEventLog,
+            MeterRegistry meterRegistry) {
+        this.config = config;
+        this.store = store;
+        this.clickEventLog = clickEventLog;
+        this.links = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumLinks())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, links, CACHE_NAME);
+    }
+
+    @Override
+    public void onClicks(List<ClickEvent> clicks) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        applyLock.lock();
+        try {
+            String logId = clickEventLog.id();
+            if (appliedPosition < 0) {
+                appliedPosition = store.offset(logId);
+            }
+            SortedMap<ClickRollupStore.Key, Long> increments = new TreeMap<>();
+            long position = appliedPosition;
+            for (ClickEvent click : clicks) {
+                if (click.position() <= appliedPosition) {
+                    continue; // already counted before a restart
+                }
+                for (StatsGranularity granularity : GRANULARITIES) {
+                    increments.merge(new ClickRollupStore.Key(click.shortUrl(), granularity,
+                            granularity.bucketStart(click.timestamp())), 1L, Long::sum);
+                }
+                position = Math.max(position, click.position());
+            }
+            if (increments.isEmpty()) {
+                return;
+            }
+            store.apply(increments, logId, position);
+            appliedPosition = position;
+            increments.forEach((key, count) -> {
+                LinkStats stats = links.getIfPresent(key.shortUrl());
+                if (stats != null) {
+                    stats.add(key.granularity(), key.bucketStart(), count);
+                }
+            });
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * Clicks on one of the user's links per bucket, for buckets starting in [from, to)
+     *
+     * @throws IllegalArgumentException if the range is empty, has too many buckets or
+     *                                  reaches past the granularity's retention
+     * @throws UrlNotFoundException     if the user has no such link
+     */
+    public ClickStatsResponse getClickStats(String shortUrl, Long userId, StatsGranularity granularity,
+            Instant from, Instant to) {
+        long now = System.currentTimeMillis();
+        long millis = granularity.getMillis();
+        long start = granularity.bucketStart(from.toEpochMilli());
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long buckets = Math.ceilDiv(to.toEpochMilli() - start, millis);
+        if (buckets > config.getMaxBuckets()) {
+            throw new IllegalArgumentException("At most " + config.getMaxBuckets() + " buckets per query");
+        }
+        Duration retention = retention(granularity);
+        if (retention != null && start < granularity.bucketStart(now - retention.toMillis())) {
+            throw new IllegalArgumentException(granularity + " buckets are kept for " + retention);
+        }
+
+        LinkStats stats = linkStats(shortUrl, now);
+        if (stats == null || !stats.ownerId.equals(userId)) {
+            throw new UrlNotFoundException("Url not found for user " + userId);
+        }
+        long[] clicks = stats.read(granularity, start, (int) buckets);
+        if (clicks == null) {
+            clicks = store.range(shortUrl, granularity, start, (int) buckets);
+        }
+
+        List<ClickStatsResponse.Bucket> result = new ArrayList<>(clicks.length);
+        long total = 0;
+        for (int i = 0; i < clicks.length; i++) {
+            result.add(new ClickStatsResponse.Bucket(Instant.ofEpochMilli(start + i * millis), clicks[i]));
+            total += clicks[i];
+        }
+        return new ClickStatsResponse(shortUrl, granularity, Instant.ofEpochMilli(start), to, total, result);
+    }
+
+    /**
+     * Drop the statistics of deleted links; joins the caller's transaction
+     */
+    public void forget(Collection<String> shortUrls) {
+        store.delete(shortUrls);
+        links.invalidateAll(shortUrls);
+    }
+
+    @Scheduled(fixedDelayString = "${click-stats.purge-interval-ms:600000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        try {
+            int minutes = store.purge(StatsGranularity.MINUTE, now - config.getMinuteRetention().toMillis());
+            int hours = store.purge(StatsGranularity.HOUR, now - config.getHourRetention().toMillis());
+            if (minutes + hours > 0) {
+                log.info("Purged {} minute and {} hour click rollups", minutes, hours);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Click rollup purge failed: {}", e.getMessage());
+        }
+    }
+
+    private Duration retention(StatsGranularity granularity) {
+        return switch (granularity) {
+            case MINUTE -> config.getMinuteRetention();
+            case HOUR -> config.getHourRetention();
+            case DAY -> null;
+        };
+    }
+
+    /**
+     * @return the link's windows, loaded or reloaded if needed; null if the link does not exist
+     */
+    private LinkStats linkStats(String shortUrl, long now) {
+        LinkStats stats = links.getIfPresent(shortUrl);
+        if (stats != null && now - stats.loadedAt < config.getRefreshInterval().toMillis()) {
+            return stats;
+        }
+        applyLock.lock();
+        try {
+            Long ownerId = store.ownerOf(shortUrl);
+            if (ownerId == null) {
+                links.invalidate(shortUrl);
+                return null;
+            }
+            LinkStats loaded = new LinkStats(ownerId, now, config);
+            store.load(shortUrl, loaded.first(StatsGranularity.MINUTE), loaded.first(StatsGranularity.HOUR),
+                    loaded.first(StatsGranularity.DAY), loaded::add);
+            links.put(shortUrl, loaded);
+            return loaded;
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * Recent buckets of one link, one ring per granularity
+     */
+    private static final class LinkStats {
+
+        final Long ownerId;
+        final long loadedAt;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final BucketRing[] rings = new BucketRing[GRANULARITIES.length];
+
+        LinkStats(Long ownerId, long now, ClickStatsConfig config) {
+            this.ownerId = ownerId;
+            this.loadedAt = now;
+            rings[StatsGranularity.MINUTE.ordinal()] = ring(StatsGranularity.MINUTE, config.getMinuteWindow(), now);
+            rings[StatsGranularity.HOUR.ordinal()] = ring(StatsGranularity.HOUR, config.getHourWindow(), now);
+            rings[StatsGranularity.DAY.ordinal()] = ring(StatsGranularity.DAY, config.getDayWindow(), now);
+        }
+
+        private static BucketRing ring(StatsGranularity granularity, Duration window, long now) {
+            return new BucketRing((int) (window.toMillis() / granularity.getMillis()), now / granularity.getMillis());
+        }
+
+        long first(StatsGranularity granularity) {
+            return rings[granularity.ordinal()].first() * granularity.getMillis();
+        }
+
+        void add(StatsGranularity granularity, long bucketStart, long clicks) {
+            lock.lock();
+            try {
+                rings[granularity.ordinal()].add(bucketStart / granularity.getMillis(), clicks);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return clicks for count buckets starting at start, null if they are not all in memory
+         */
+        long[] read(StatsGranularity granularity, long start, int count) {
+            BucketRing ring = rings[granularity.ordinal()];
+            long first = start / granularity.getMillis();
+            lock.lock();
+            try {
+                if (!ring.covers(first)) {
+                    return null;
+                }
+                long[] clicks = new long[count];
+                for (int i = 0; i < count; i++) {
+                    clicks[i] = ring.get(first + i);
+                }
+                return clicks;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
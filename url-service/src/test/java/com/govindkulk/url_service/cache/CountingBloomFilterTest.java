@@ -0,0 +1,96 @@
+package com.govindkulk.url_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("code" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("code" + i), "code" + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("code" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000");
+    }
+
+    @Test
+    void removalUndoesEachAdd() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("abc");
+        filter.add("abc");
+
+        filter.remove("abc");
+        assertTrue(filter.mightContain("abc"), "one add is still counted");
+        filter.remove("abc");
+        assertFalse(filter.mightContain("abc"));
+    }
+
+    @Test
+    void removalLeavesOtherKeysInPlace() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("code" + i);
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            filter.remove("code" + i);
+        }
+        for (int i = 1; i < 1_000; i += 2) {
+            assertTrue(filter.mightContain("code" + i), "code" + i);
+        }
+    }
+
+    @Test
+    void saturatedCountersAreNeverDecremented() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20; i++) {
+            filter.add("hot");
+        }
+        for (int i = 0; i < 20; i++) {
+            filter.remove("hot");
+        }
+
+        assertTrue(filter.mightContain("hot"), "a saturated counter only costs a false positive");
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws InterruptedException {
+        CountingBloomFilter filter = new CountingBloomFilter(20_000, 0.01);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    filter.add("t" + thread + "-" + i);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            for (int i = 0; i < 5_000; i++) {
+                assertTrue(filter.mightContain("t" + t + "-" + i));
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.govindkulk.url_service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.govindkulk.url_service.config.ShortUrlFilterConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShortUrlFilterTest {
+
+    private final ShortUrlFilterConfig config = new ShortUrlFilterConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private ShortUrlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:filter;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE url_mapping (short_url VARCHAR(16) PRIMARY KEY, created_at TIMESTAMP)");
+        filter = new ShortUrlFilter(config, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), meterRegistry);
+        config.setExpectedInsertions(1_000);
+    }
+
+    @AfterEach
+    void dropTable() {
+        jdbcTemplate.execute("DROP TABLE url_mapping");
+    }
+
+    @Test
+    void everythingMightBePresentBeforeTheFirstLoad() {
+        assertTrue(filter.mightContain("abc"));
+        assertTrue(filter.mightResolve("abc"));
+    }
+
+    @Test
+    void loadSeesExistingRowsAndRulesOutOthers() {
+        insert("abc");
+        filter.load();
+
+        assertTrue(filter.mightContain("abc"));
+        assertFalse(filter.mightContain("missing"));
+        assertEquals(1, meterRegistry.counter("url.filter.negatives").count());
+    }
+
+    @Test
+    void localAddsAndRemovesApplyImmediately() {
+        filter.load();
+        insert("abc");
+        filter.add("abc");
+        assertTrue(filter.mightContain("abc"));
+
+        filter.remove("abc");
+        assertFalse(filter.mightContain("abc"));
+    }
+
+    @Test
+    void syncPicksUpRowsCreatedElsewhereWithoutCountingLocalAddsTwice() {
+        filter.load();
+        insert("local");
+        filter.add("local");
+        insert("remote");
+        assertFalse(filter.mightContain("remote"));
+
+        filter.sync();
+        assertTrue(filter.mightContain("remote"));
+
+        // The sync re-read "local" but did not add it a second time
+        filter.remove("local");
+        assertFalse(filter.mightContain("local"));
+    }
+
+    @Test
+    void missCatchesUpWithRowsCreatedElsewhere() {
+        config.setMissSyncInterval(Duration.ZERO);
+        filter.load();
+        insert("remote");
+
+        assertTrue(filter.mightResolve("remote"));
+        assertTrue(filter.mightContain("remote"), "caught up rows stay in the filter");
+    }
+
+    @Test
+    void missesWithinTheIntervalAreAnsweredFromMemory() {
+        config.setMissSyncInterval(Duration.ofHours(1));
+        filter.load();
+        insert("remote");
+
+        assertFalse(filter.mightResolve("remote"), "no catch-up sync until the interval has passed");
+        assertFalse(filter.mightResolve("missing"));
+    }
+
+    @Test
+    void disabledFilterRulesNothingOut() {
+        config.setEnabled(false);
+        filter.load();
+        filter.add("abc");
+
+        assertTrue(filter.mightContain("missing"));
+        assertTrue(filter.mightResolve("missing"));
+    }
+
+    private void insert(String shortUrl) {
+        jdbcTemplate.update("INSERT INTO url_mapping (short_url, created_at) VALUES (?, ?)",
+                shortUrl, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
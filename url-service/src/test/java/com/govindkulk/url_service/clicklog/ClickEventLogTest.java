@@ -0,0 +1,216 @@
+package com.govindkulk.url_service.clicklog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.govindkulk.url_service.config.ClickLogConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClickEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<ClickEventLog> logs = new ArrayList<>();
+
+    @AfterEach
+    void closeLogs() throws InterruptedException {
+        for (ClickEventLog log : logs) {
+            log.close();
+        }
+    }
+
+    @Test
+    void recoveryResumesAfterTheLastValidRecordAndClearsATornOne() throws Exception {
+        CRC32C crc = new CRC32C();
+        try (ClickLogSegment segment = ClickLogSegment.openForWriting(directory, 1, 8)) {
+            for (int i = 0; i < 5; i++) {
+                ClickRecord.write(segment.buffer, i * ClickRecord.SIZE, "old" + i, i, 0L, UserAgentClass.DESKTOP, 0L, crc);
+            }
+            // Record 3 was cut short by a crash; record 4 got further but is past the tear
+            segment.buffer.put(3 * ClickRecord.SIZE + 40, (byte) 'x');
+        }
+
+        ClickEventLog log = start(config(8));
+        assertEquals(ClickEventLog.position(1, 3), log.committed());
+
+        log.record("new", null, null, "10.0.0.1");
+        awaitCommitted(log, ClickEventLog.position(1, 4));
+        log.close();
+
+        try (ClickLogSegment segment = ClickLogSegment.openForReading(directory, 1)) {
+            assertNotNull(segment);
+            assertEquals(List.of("old0", "old1", "old2", "new"), codes(segment, 4));
+            assertTrue(ClickRecord.isEmpty(segment.buffer, 4 * ClickRecord.SIZE));
+        }
+    }
+
+    @Test
+    void writerRotatesToANewSegmentWhenOneIsFull() throws Exception {
+        ClickEventLog log = start(config(4));
+        for (int i = 0; i < 10; i++) {
+            log.record("c" + i, null, null, null);
+        }
+        awaitCommitted(log, ClickEventLog.position(3, 2));
+
+        assertEquals(List.of(1L, 2L, 3L), ClickLogSegment.list(directory));
+        try (ClickLogSegment segment = ClickLogSegment.openForReading(directory, 2)) {
+            assertEquals(List.of("c4", "c5", "c6", "c7"), codes(segment, 4));
+        }
+    }
+
+    @Test
+    void reopenedLogKeepsItsIdAndContinuesInTheNewestSegment() throws Exception {
+        ClickLogConfig config = config(4);
+        ClickEventLog first = start(config);
+        for (int i = 0; i < 5; i++) {
+            first.record("c" + i, null, null, null);
+        }
+        awaitCommitted(first, ClickEventLog.position(2, 1));
+        first.close();
+
+        ClickEventLog second = start(config);
+        assertEquals(first.id(), second.id());
+        assertEquals(ClickEventLog.position(2, 1), second.committed());
+    }
+
+    @Test
+    void consumerDeliversInOrderAndResumesFromItsCheckpoint() throws Exception {
+        ClickLogConfig config = config(4);
+        ClickEventLog log = start(config);
+        List<ClickEvent> delivered = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            log.record("c" + i, "https://ref.example/x", "Mozilla/5.0 (iPhone)", "10.20.30.40");
+        }
+        awaitCommitted(log, ClickEventLog.position(2, 2));
+
+        ClickLogConsumer consumer = new ClickLogConsumer(log, List.of(delivered::addAll), config, new SimpleMeterRegistry());
+        assertEquals(6, consumer.consume());
+        assertEquals(List.of("c0", "c1", "c2", "c3", "c4", "c5"), delivered.stream().map(ClickEvent::shortUrl).toList());
+        assertEquals(ClickEventLog.position(2, 1), delivered.get(5).position());
+        ClickEvent first = delivered.get(0);
+        assertEquals(ClickRecord.referrerHash("https://ref.example/"), first.referrerHash());
+        assertEquals(UserAgentClass.MOBILE, first.userAgentClass());
+        assertEquals(ClickRecord.ipPrefix("10.20.30.40"), first.ipPrefix());
+        assertEquals(0, consumer.consume());
+        consumer.close();
+
+        log.record("c6", null, null, null);
+        awaitCommitted(log, ClickEventLog.position(2, 3));
+        delivered.clear();
+        // A new consumer, as after a restart, starts from the checkpoint file
+        ClickLogConsumer restarted = new ClickLogConsumer(log, List.of(delivered::addAll), config, new SimpleMeterRegistry());
+        assertEquals(1, restarted.consume());
+        assertEquals("c6", delivered.get(0).shortUrl());
+    }
+
+    @Test
+    void forwardedClickKeepsTheTimeItWasServed() throws Exception {
+        ClickLogConfig config = config(8);
+        ClickEventLog log = start(config);
+        log.record("c0", 1_000_000L, null, null, "10.0.0.1");
+        awaitCommitted(log, ClickEventLog.position(1, 1));
+
+        List<ClickEvent> delivered = new ArrayList<>();
+        assertEquals(1, new ClickLogConsumer(log, List.of(delivered::addAll), config, new SimpleMeterRegistry()).consume());
+        assertEquals(1_000_000L, delivered.get(0).timestamp());
+    }
+
+    @Test
+    void failedBatchIsDeliveredAgain() throws Exception {
+        ClickLogConfig config = config(8);
+        ClickEventLog log = start(config);
+        log.record("c0", null, null, null);
+        awaitCommitted(log, ClickEventLog.position(1, 1));
+        List<ClickEvent> delivered = new ArrayList<>();
+        boolean[] fail = { true };
+        ClickEventListener listener = clicks -> {
+            if (fail[0]) {
+                throw new IllegalStateException("database down");
+            }
+            delivered.addAll(clicks);
+        };
+
+        ClickLogConsumer consumer = new ClickLogConsumer(log, List.of(listener), config, new SimpleMeterRegistry());
+        assertEquals(0, consumer.consume());
+        fail[0] = false;
+        assertEquals(1, consumer.consume());
+        assertEquals("c0", delivered.get(0).shortUrl());
+    }
+
+    @Test
+    void consumedSegmentsBeyondRetentionAreDeleted() throws Exception {
+        ClickLogConfig config = config(2);
+        config.setRetainSegments(1);
+        ClickEventLog log = start(config);
+        for (int i = 0; i < 7; i++) {
+            log.record("c" + i, null, null, null);
+        }
+        awaitCommitted(log, ClickEventLog.position(4, 1));
+
+        ClickLogConsumer consumer = new ClickLogConsumer(log, List.of(clicks -> { }), config, new SimpleMeterRegistry());
+        assertEquals(7, consumer.consume());
+        consumer.close();
+
+        assertEquals(List.of(3L, 4L), ClickLogSegment.list(directory));
+    }
+
+    @Test
+    void disabledLogRecordsNothing() throws Exception {
+        ClickLogConfig config = config(8);
+        config.setEnabled(false);
+        ClickEventLog log = start(config);
+        log.record("c0", null, null, null);
+
+        assertEquals(0, log.committed());
+        assertFalse(directory.resolve("log.id").toFile().exists());
+        assertEquals(0, new ClickLogConsumer(log, List.of(clicks -> { }), config, new SimpleMeterRegistry()).consume());
+    }
+
+    private ClickLogConfig config(int segmentRecords) {
+        ClickLogConfig config = new ClickLogConfig();
+        config.setDirectory(directory.toString());
+        config.setSegmentRecords(segmentRecords);
+        config.setRingCapacity(64);
+        return config;
+    }
+
+    private ClickEventLog start(ClickLogConfig config) {
+        ClickEventLog log = new ClickEventLog(config, new SimpleMeterRegistry());
+        log.start();
+        logs.add(log);
+        return log;
+    }
+
+    private static void awaitCommitted(ClickEventLog log, long position) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (log.committed() < position) {
+            assertTrue(System.currentTimeMillis() < deadline, "writer did not reach " + position);
+            Thread.sleep(1);
+        }
+        assertEquals(position, log.committed());
+    }
+
+    private static List<String> codes(ClickLogSegment segment, int count) throws IOException {
+        CRC32C crc = new CRC32C();
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            assertTrue(ClickRecord.isValid(segment.buffer, i * ClickRecord.SIZE, crc), "record " + i);
+            codes.add(ClickRecord.read(segment.buffer, i * ClickRecord.SIZE, i).shortUrl());
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,113 @@
+package com.govindkulk.url_service.clicklog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+
+class ClickRecordTest {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(ClickRecord.SIZE * 2);
+    private final CRC32C crc = new CRC32C();
+
+    @Test
+    void writtenRecordReadsBack() {
+        assertTrue(ClickRecord.write(buffer, ClickRecord.SIZE, "abc123", 1_700_000_000_123L, 42L,
+                UserAgentClass.MOBILE, 0x4000000000a141eL, crc));
+
+        assertTrue(ClickRecord.isValid(buffer, ClickRecord.SIZE, crc));
+        ClickEvent event = ClickRecord.read(buffer, ClickRecord.SIZE, 7L);
+        assertEquals(new ClickEvent(7L, "abc123", 1_700_000_000_123L, 42L, UserAgentClass.MOBILE, 0x4000000000a141eL),
+                event);
+    }
+
+    @Test
+    void codeOfMaximumLengthFits() {
+        String code = "a".repeat(ClickRecord.MAX_CODE_LENGTH);
+        assertTrue(ClickRecord.write(buffer, 0, code, 1L, 0L, UserAgentClass.UNKNOWN, 0L, crc));
+        assertEquals(code, ClickRecord.read(buffer, 0, 0L).shortUrl());
+    }
+
+    @Test
+    void unstorableCodesAreRejected() {
+        assertFalse(ClickRecord.write(buffer, 0, "", 1L, 0L, UserAgentClass.UNKNOWN, 0L, crc));
+        assertFalse(ClickRecord.write(buffer, 0, "a".repeat(ClickRecord.MAX_CODE_LENGTH + 1), 1L, 0L,
+                UserAgentClass.UNKNOWN, 0L, crc));
+        assertFalse(ClickRecord.write(buffer, 0, "abcé", 1L, 0L, UserAgentClass.UNKNOWN, 0L, crc));
+    }
+
+    @Test
+    void checksumCatchesAnyChangedByte() {
+        ClickRecord.write(buffer, 0, "abc123", 1_700_000_000_123L, 42L, UserAgentClass.DESKTOP, 1L, crc);
+        for (int i = 0; i < ClickRecord.SIZE; i++) {
+            byte original = buffer.get(i);
+            buffer.put(i, (byte) (original ^ 0x01));
+            assertFalse(ClickRecord.isValid(buffer, 0, crc), "byte " + i);
+            buffer.put(i, original);
+        }
+        assertTrue(ClickRecord.isValid(buffer, 0, crc));
+    }
+
+    @Test
+    void unwrittenAndClearedSlotsAreEmptyAndInvalid() {
+        assertTrue(ClickRecord.isEmpty(buffer, 0));
+        assertFalse(ClickRecord.isValid(buffer, 0, crc));
+
+        ClickRecord.write(buffer, 0, "abc123", 1L, 0L, UserAgentClass.BOT, 0L, crc);
+        assertFalse(ClickRecord.isEmpty(buffer, 0));
+        ClickRecord.clear(buffer, 0);
+        assertTrue(ClickRecord.isEmpty(buffer, 0));
+        assertFalse(ClickRecord.isValid(buffer, 0, crc));
+    }
+
+    @Test
+    void referrerHashKeepsOnlyTheHost() {
+        long host = ClickRecord.referrerHash("https://Example.com/a?b=c");
+        assertEquals(host, ClickRecord.referrerHash("http://example.com:8080/other#x"));
+        assertEquals(host, ClickRecord.referrerHash("example.com"));
+        assertNotEquals(host, ClickRecord.referrerHash("https://example.org/a"));
+        assertEquals(0L, ClickRecord.referrerHash(null));
+        assertEquals(0L, ClickRecord.referrerHash(""));
+    }
+
+    @Test
+    void ipv4PrefixKeepsTheFirstThreeOctets() {
+        assertEquals(0x4000000000a141eL, ClickRecord.ipPrefix("10.20.30.40"));
+        assertEquals(ClickRecord.ipPrefix("10.20.30.40"), ClickRecord.ipPrefix("10.20.30.1"));
+        assertNotEquals(ClickRecord.ipPrefix("10.20.30.40"), ClickRecord.ipPrefix("10.20.31.40"));
+        assertEquals(0x400000000ffffffL, ClickRecord.ipPrefix("255.255.255.255"));
+    }
+
+    @Test
+    void ipv6PrefixKeepsTheFirstThreeGroups() {
+        assertEquals(0x600_2001_0db8_0001L, ClickRecord.ipPrefix("2001:db8:1:2:3:4:5:6"));
+        assertEquals(0x600_2001_0db8_0001L, ClickRecord.ipPrefix("2001:DB8:1::1"));
+        assertEquals(0x600_2001_0db8_0000L, ClickRecord.ipPrefix("2001:db8::"));
+        assertEquals(0x600_2001_0db8_0001L, ClickRecord.ipPrefix("[2001:db8:1::1]"));
+        assertEquals(0x600_fe80_0000_0000L, ClickRecord.ipPrefix("fe80::1%eth0"));
+        assertEquals(0x600_0000_0000_0000L, ClickRecord.ipPrefix("::1"));
+        assertEquals(0x600_0000_0000_0000L, ClickRecord.ipPrefix("::"));
+        assertEquals(0x600_0064_ff9b_0000L, ClickRecord.ipPrefix("64:ff9b::192.0.2.1"));
+    }
+
+    @Test
+    void ipv4MappedAddressesCountAsIpv4() {
+        assertEquals(ClickRecord.ipPrefix("10.20.30.40"), ClickRecord.ipPrefix("::ffff:10.20.30.40"));
+        assertEquals(ClickRecord.ipPrefix("10.20.30.40"), ClickRecord.ipPrefix("::FFFF:a14:1e28"));
+        assertEquals(ClickRecord.ipPrefix("10.20.30.40"), ClickRecord.ipPrefix("0:0:0:0:0:ffff:10.20.30.40"));
+    }
+
+    @Test
+    void malformedAddressesHaveNoPrefix() {
+        for (String address : new String[] { null, "", "localhost", "10.20.30", "10.20.30.40.50", "10.20.30.256",
+                "10..30.40", "1.2.3.4 ", "2001:db8:1", "2001:db8::1::2", "1:2:3:4:5:6:7:8:9", "2001:db8:12345::",
+                "2001:db8:g::", "::ffff:10.20.30.256", "unknown:host" }) {
+            assertEquals(0L, ClickRecord.ipPrefix(address), String.valueOf(address));
+        }
+    }
+}
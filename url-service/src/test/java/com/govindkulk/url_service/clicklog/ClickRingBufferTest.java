@@ -0,0 +1,124 @@
+package com.govindkulk.url_service.clicklog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ClickRingBufferTest {
+
+    private final List<String> drained = new ArrayList<>();
+    private final ClickRingBuffer.Handler collect =
+            (shortUrl, timestamp, referrer, userAgent, clientAddress) -> drained.add(shortUrl + "@" + timestamp);
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        ClickRingBuffer ring = new ClickRingBuffer(5);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(ring.offer("c", i, null, null, null));
+        }
+        assertFalse(ring.offer("c", 8, null, null, null));
+
+        ClickRingBuffer exact = new ClickRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(exact.offer("c", i, null, null, null));
+        }
+        assertFalse(exact.offer("c", 4, null, null, null));
+    }
+
+    @Test
+    void fullBufferRejectsUntilDrained() {
+        ClickRingBuffer ring = new ClickRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer("c", i, null, null, null));
+        }
+        assertFalse(ring.offer("lost", 4, null, null, null));
+
+        assertEquals(1, ring.drain(collect, 1));
+        assertTrue(ring.offer("c", 5, null, null, null));
+        assertFalse(ring.offer("lost", 6, null, null, null));
+
+        assertEquals(4, ring.drain(collect, 10));
+        assertEquals(List.of("c@0", "c@1", "c@2", "c@3", "c@5"), drained);
+    }
+
+    @Test
+    void clicksComeOutInOrderAcrossManyLaps() {
+        ClickRingBuffer ring = new ClickRingBuffer(4);
+        List<String> expected = new ArrayList<>();
+        long timestamp = 0;
+        for (int lap = 0; lap < 10; lap++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.offer("c" + lap, timestamp, "r", "ua", "10.0.0.1"));
+                expected.add("c" + lap + "@" + timestamp++);
+            }
+            assertEquals(3, ring.drain(collect, Integer.MAX_VALUE));
+        }
+        assertEquals(expected, drained);
+        assertEquals(0, ring.drain(collect, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void drainHandsOverEveryFieldAndRespectsTheLimit() {
+        ClickRingBuffer ring = new ClickRingBuffer(8);
+        ring.offer("abc", 1L, "https://ref", "Mozilla", "10.0.0.1");
+        ring.offer("def", 2L, null, null, null);
+        List<Object[]> fields = new ArrayList<>();
+
+        assertEquals(1, ring.drain((shortUrl, timestamp, referrer, userAgent, clientAddress) ->
+                fields.add(new Object[] { shortUrl, timestamp, referrer, userAgent, clientAddress }), 1));
+        assertEquals(List.of("abc", 1L, "https://ref", "Mozilla", "10.0.0.1"), List.of(fields.get(0)));
+        assertEquals(1, ring.size());
+        assertEquals(1, ring.drain(collect, 1));
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws InterruptedException {
+        ClickRingBuffer ring = new ClickRingBuffer(1 << 10);
+        int producers = 4;
+        int perProducer = 20_000;
+        int[] accepted = new int[producers];
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (ring.offer("p" + producer, i, null, null, null)) {
+                        accepted[producer]++;
+                    }
+                }
+            });
+        }
+        long[] last = { -1, -1, -1, -1 };
+        int[] seen = new int[producers];
+        boolean[] ordered = { true };
+        ClickRingBuffer.Handler check = (shortUrl, timestamp, referrer, userAgent, clientAddress) -> {
+            int producer = shortUrl.charAt(1) - '0';
+            ordered[0] &= timestamp > last[producer];
+            last[producer] = timestamp;
+            seen[producer]++;
+        };
+        boolean running = true;
+        while (running) {
+            running = false;
+            for (Thread thread : threads) {
+                running |= thread.isAlive();
+            }
+            ring.drain(check, Integer.MAX_VALUE);
+        }
+        ring.drain(check, Integer.MAX_VALUE);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(ordered[0], "clicks of one producer are drained in the order offered");
+        for (int p = 0; p < producers; p++) {
+            assertEquals(accepted[p], seen[p]);
+        }
+    }
+}
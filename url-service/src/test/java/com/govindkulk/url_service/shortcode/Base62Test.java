@@ -0,0 +1,74 @@
+package com.govindkulk.url_service.shortcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class Base62Test {
+
+    @Test
+    void encodesInTheAlphabetsOrder() {
+        assertEquals("0", Base62.encode(0, 1));
+        assertEquals("z", Base62.encode(61, 1));
+        assertEquals("10", Base62.encode(62, 1));
+        assertEquals("zz", Base62.encode(62 * 62 - 1, 1));
+    }
+
+    @Test
+    void padsToTheMinimumLength() {
+        assertEquals("000001", Base62.encode(1, 6));
+        assertEquals("1000000", Base62.encode(pow62(6), 6));
+    }
+
+    @Test
+    void negativeValuesAreReadAsUnsigned() {
+        assertEquals("LygHa16AHYF", Base62.encode(-1L, 1));
+        assertEquals(-1L, decode("LygHa16AHYF"));
+        assertEquals(Long.MIN_VALUE, decode(Base62.encode(Long.MIN_VALUE, 1)));
+    }
+
+    @Test
+    void encodeFixedKeepsTheLowDigits() {
+        char[] buf = new char[8];
+        Base62.encodeFixed(pow62(3) + 5, 3, buf, 1);
+        assertEquals("005", new String(buf, 1, 3));
+
+        Base62.encodeFixed(12345, 6, buf, 2);
+        assertEquals(Base62.encode(12345, 6), new String(buf, 2, 6));
+    }
+
+    @Test
+    void encodeFixedWithElevenDigitsMatchesEncode() {
+        char[] buf = new char[Base62.MAX_LENGTH];
+        for (long value : new long[] { 0, 1, Long.MAX_VALUE, Long.MIN_VALUE, -1L, 0x9E3779B97F4A7C15L }) {
+            Base62.encodeFixed(value, Base62.MAX_LENGTH, buf, 0);
+            assertEquals(Base62.encode(value, Base62.MAX_LENGTH), new String(buf), Long.toHexString(value));
+        }
+    }
+
+    @Test
+    void decodingAnEncodingGivesTheValueBack() {
+        long value = 1;
+        for (int i = 0; i < 200; i++) {
+            assertEquals(value, decode(Base62.encode(value, 1)));
+            value = value * 6364136223846793005L + 1442695040888963407L;
+        }
+    }
+
+    private static long pow62(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 62;
+        }
+        return value;
+    }
+
+    // Wraps like the unsigned value modulo 2^64
+    private static long decode(String code) {
+        long value = 0;
+        for (int i = 0; i < code.length(); i++) {
+            value = value * 62 + Base62.ALPHABET.indexOf(code.charAt(i));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,92 @@
+package com.govindkulk.url_service.shortcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HashShortCodeGeneratorTest {
+
+    private static final String URL = "https://example.com/some/long/path?query=1";
+
+    @Test
+    void sameInputAlwaysGivesTheSameCode() {
+        assertEquals(HashShortCodeGenerator.generate(URL, 42, 6), HashShortCodeGenerator.generate(URL, 42, 6));
+    }
+
+    @Test
+    void codesHaveTheRequestedLengthAndOnlyBase62Digits() {
+        for (int length = 1; length <= Base62.MAX_LENGTH; length++) {
+            String code = HashShortCodeGenerator.generate(URL, 42, length);
+            assertEquals(length, code.length());
+            for (char c : code.toCharArray()) {
+                assertTrue(Base62.ALPHABET.indexOf(c) >= 0, code);
+            }
+        }
+    }
+
+    @Test
+    void userAndUrlBothChangeTheCode() {
+        String code = HashShortCodeGenerator.generate(URL, 42, 6);
+        assertNotEquals(code, HashShortCodeGenerator.generate(URL, 43, 6));
+        assertNotEquals(code, HashShortCodeGenerator.generate(URL + "2", 42, 6));
+        // Differs only in the partial last block of four chars
+        assertNotEquals(HashShortCodeGenerator.generate("https://a.io/x", 1, 6),
+                HashShortCodeGenerator.generate("https://a.io/y", 1, 6));
+    }
+
+    @Test
+    void longerCandidateIsNotAnExtensionOfTheShorterOne() {
+        int prefixes = 0;
+        for (int i = 0; i < 1000; i++) {
+            String url = URL + i;
+            if (HashShortCodeGenerator.generate(url, 7, 7).startsWith(HashShortCodeGenerator.generate(url, 7, 6))) {
+                prefixes++;
+            }
+        }
+        assertTrue(prefixes < 3, prefixes + " seven-character codes extend the six-character one");
+    }
+
+    @Test
+    void distinctUrlsRarelyCollide() {
+        // 100k codes in 62^6 ≈ 5.7e10 expect about 0.1 collisions
+        Set<String> codes = new HashSet<>();
+        int collisions = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (!codes.add(HashShortCodeGenerator.generate("https://example.com/page/" + i, 1, 6))) {
+                collisions++;
+            }
+        }
+        assertTrue(collisions < 5, collisions + " collisions");
+    }
+
+    @Test
+    void everyDigitIsUsedInEveryPosition() {
+        int length = 6;
+        int[][] counts = new int[length][62];
+        int samples = 62_000;
+        for (int i = 0; i < samples; i++) {
+            String code = HashShortCodeGenerator.generate(URL, i, length);
+            for (int p = 0; p < length; p++) {
+                counts[p][Base62.ALPHABET.indexOf(code.charAt(p))]++;
+            }
+        }
+        for (int p = 0; p < length; p++) {
+            for (int d = 0; d < 62; d++) {
+                // 1000 expected per digit
+                assertTrue(counts[p][d] > 800 && counts[p][d] < 1200,
+                        "position " + p + " digit " + Base62.ALPHABET.charAt(d) + ": " + counts[p][d]);
+            }
+        }
+    }
+
+    @Test
+    void hashIsTheSameForAnyCharSequence() {
+        assertEquals(FastHash.hash64(URL, 9), FastHash.hash64(new StringBuilder(URL), 9));
+        assertNotEquals(FastHash.hash64(URL, 9), FastHash.hash64(URL, 10));
+    }
+}
@@ -0,0 +1,76 @@
+package com.govindkulk.url_service.shortcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class IdScramblerTest {
+
+    private final IdScrambler scrambler = new IdScrambler(0x5DEECE66DL);
+
+    @Test
+    void isAPermutationOfASmallDomain() {
+        int bits = 16;
+        Set<Long> seen = new HashSet<>();
+        for (long id = 0; id < 1 << bits; id++) {
+            long scrambled = scrambler.scramble(id, bits);
+            assertTrue(scrambled >= 0 && scrambled < 1 << bits, "out of range: " + scrambled);
+            assertTrue(seen.add(scrambled), "collision at " + id);
+        }
+        assertEquals(1 << bits, seen.size());
+    }
+
+    @Test
+    void staysInsideTheDomainOfEachCodeLength() {
+        for (int bits = 34; bits < 64; bits += 6) {
+            long limit = 1L << bits;
+            for (long id : new long[] { 0, 1, limit / 2, limit - 1 }) {
+                long scrambled = scrambler.scramble(id, bits);
+                assertTrue(scrambled >= 0 && scrambled < limit, bits + " bits: " + scrambled);
+            }
+        }
+    }
+
+    @Test
+    void sixtyFourBitDomainHasNoCollisionsAmongConsecutiveIds() {
+        Set<Long> seen = new HashSet<>();
+        for (long id = 0; id < 100_000; id++) {
+            assertTrue(seen.add(scrambler.scramble(id, 64)), "collision at " + id);
+        }
+    }
+
+    @Test
+    void sameKeyGivesTheSamePermutation() {
+        IdScrambler other = new IdScrambler(0x5DEECE66DL);
+        for (long id = 0; id < 1000; id++) {
+            assertEquals(scrambler.scramble(id, 34), other.scramble(id, 34));
+        }
+    }
+
+    @Test
+    void differentKeysGiveDifferentPermutations() {
+        IdScrambler other = new IdScrambler(42);
+        int same = 0;
+        for (long id = 0; id < 1000; id++) {
+            if (scrambler.scramble(id, 34) == other.scramble(id, 34)) {
+                same++;
+            }
+        }
+        assertTrue(same < 5, same + " ids map to the same value");
+    }
+
+    @Test
+    void consecutiveIdsAreNotConsecutiveAfterScrambling() {
+        int adjacent = 0;
+        for (long id = 0; id < 1000; id++) {
+            if (Math.abs(scrambler.scramble(id + 1, 34) - scrambler.scramble(id, 34)) == 1) {
+                adjacent++;
+            }
+        }
+        assertTrue(adjacent < 5, adjacent + " neighbours stay neighbours");
+    }
+}
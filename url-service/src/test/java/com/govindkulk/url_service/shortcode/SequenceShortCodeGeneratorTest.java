@@ -0,0 +1,146 @@
+package com.govindkulk.url_service.shortcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.govindkulk.url_service.config.ShortCodeConfig;
+
+class SequenceShortCodeGeneratorTest {
+
+    private static final String NEXT_VAL_SQL = "SELECT NEXT VALUE FOR " + SequenceShortCodeGenerator.SEQUENCE_NAME;
+
+    private final ShortCodeConfig config = new ShortCodeConfig();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:sequence;DB_CLOSE_DELAY=-1"));
+        config.setStrategy(ShortCodeConfig.Strategy.SEQUENCE);
+        config.setBlockSize(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS " + SequenceShortCodeGenerator.SEQUENCE_NAME);
+    }
+
+    @Test
+    void idsRunThroughALeasedBlockBeforeTheNextLease() {
+        SequenceShortCodeGenerator generator = generator();
+
+        // The sequence starts at 1, so the first block is [3, 6)
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(generator.nextId());
+        }
+
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L, 9L), ids);
+        assertEquals(3L, sequenceValue());
+    }
+
+    @Test
+    void replicasLeaseDisjointBlocks() {
+        SequenceShortCodeGenerator first = generator();
+        SequenceShortCodeGenerator second = generator();
+
+        assertEquals(3, first.nextId());
+        assertEquals(6, second.nextId());
+        assertEquals(4, first.nextId());
+        assertEquals(5, first.nextId());
+        assertEquals(9, first.nextId()); // first's block is used up; second still holds [6, 9)
+        assertEquals(7, second.nextId());
+    }
+
+    @Test
+    void concurrentCallersGetEveryIdOnceWithOneLeasePerBlock() throws InterruptedException {
+        config.setBlockSize(100);
+        SequenceShortCodeGenerator generator = generator();
+        int threads = 8;
+        int perThread = 1000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int total = threads * perThread;
+        assertEquals(total, ids.size());
+        // Overshooting an exhausted block wastes no ids: they are exactly [100, 100 + total)
+        assertEquals(100L, ids.stream().mapToLong(Long::longValue).min().getAsLong());
+        assertEquals(100L + total - 1, ids.stream().mapToLong(Long::longValue).max().getAsLong());
+        assertEquals(total / 100, sequenceValue());
+    }
+
+    @Test
+    void codeLengthGrowsOneCharacterPerSixBits() {
+        config.setScramble(false);
+        SequenceShortCodeGenerator generator = generator();
+
+        assertEquals("000000", generator.encode(0));
+        assertEquals(6, generator.encode((1L << 34) - 1).length());
+        assertEquals(7, generator.encode(1L << 34).length());
+        assertEquals(7, generator.encode((1L << 40) - 1).length());
+        assertEquals(8, generator.encode(1L << 40).length());
+        assertEquals(11, generator.encode(Long.MAX_VALUE).length());
+    }
+
+    @Test
+    void scrambledCodesKeepTheirLengthAndAreDistinct() {
+        SequenceShortCodeGenerator generator = generator();
+        Set<String> codes = new HashSet<>();
+        for (long id = 0; id < 10_000; id++) {
+            String code = generator.encode(id);
+            assertEquals(6, code.length(), code);
+            assertTrue(codes.add(code), "duplicate code " + code);
+        }
+        assertEquals(7, generator.encode(1L << 34).length());
+    }
+
+    @Test
+    void nextEncodesTheNextId() {
+        config.setScramble(false);
+        SequenceShortCodeGenerator generator = generator();
+
+        assertEquals("000003", generator.next());
+        assertEquals("000004", generator.next());
+    }
+
+    private SequenceShortCodeGenerator generator() {
+        return new SequenceShortCodeGenerator(jdbcTemplate, config, NEXT_VAL_SQL);
+    }
+
+    private long sequenceValue() {
+        return jdbcTemplate.queryForObject("SELECT BASE_VALUE - INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES "
+                + "WHERE SEQUENCE_NAME = 'SHORT_CODE_SEQ'", Long.class);
+    }
+}
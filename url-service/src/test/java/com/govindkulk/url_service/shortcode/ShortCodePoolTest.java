@@ -0,0 +1,145 @@
+package com.govindkulk.url_service.shortcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.govindkulk.url_service.cache.ShortUrlFilter;
+import com.govindkulk.url_service.config.ShortCodeConfig;
+import com.govindkulk.url_service.config.ShortUrlFilterConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShortCodePoolTest {
+
+    private final ShortCodeConfig config = new ShortCodeConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private ShortCodePool pool;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE url_mapping (short_url VARCHAR(16) PRIMARY KEY, created_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE short_code_pool "
+                + "(code VARCHAR(16) PRIMARY KEY, reserved_at TIMESTAMP NOT NULL, reserved_by VARCHAR(36))");
+
+        // An empty, loaded filter rules every candidate out without the repository
+        ShortUrlFilter filter = new ShortUrlFilter(new ShortUrlFilterConfig(), jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), meterRegistry);
+        filter.load();
+
+        config.setStrategy(ShortCodeConfig.Strategy.POOL);
+        config.setPoolCapacity(50);
+        config.setPoolLowWatermark(10);
+        pool = new ShortCodePool(config, jdbcTemplate, filter, null, meterRegistry, new StandardEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.release();
+        jdbcTemplate.execute("DROP TABLE short_code_pool");
+        jdbcTemplate.execute("DROP TABLE url_mapping");
+    }
+
+    @Test
+    void refillReservesDistinctCodesUpToCapacity() throws InterruptedException {
+        pool.start();
+        awaitDepth(50);
+
+        assertEquals(50, rows());
+        Set<String> taken = new HashSet<>();
+        for (int i = 0; i < 45; i++) {
+            String code = pool.take();
+            assertEquals(6, code.length());
+            assertTrue(taken.add(code), "duplicate " + code);
+        }
+        // Dropping below the watermark refilled the queue in the background; takes that
+        // race the refill are not made up until the next time it drops below
+        awaitDepth(45);
+        assertTrue(rows() >= 90);
+    }
+
+    @Test
+    void emptyPoolReturnsNullAndCountsAMiss() {
+        config.setStrategy(ShortCodeConfig.Strategy.HASH);
+        pool.start();
+
+        assertNull(pool.take());
+        assertEquals(1, meterRegistry.counter("url.code.pool.misses").count());
+    }
+
+    @Test
+    void cleanUpDropsUsedCodes() throws InterruptedException {
+        pool.start();
+        awaitDepth(50);
+        String used = pool.take();
+        jdbcTemplate.update("INSERT INTO url_mapping (short_url, created_at) VALUES (?, ?)",
+                used, Timestamp.valueOf(LocalDateTime.now()));
+
+        pool.cleanUp();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM short_code_pool WHERE code = ?", Integer.class, used));
+    }
+
+    @Test
+    void cleanUpFreesExpiredLeasesAndRenewsItsOwn() throws InterruptedException {
+        config.setPoolLease(Duration.ofMinutes(30));
+        pool.start();
+        awaitDepth(50);
+        Timestamp stale = Timestamp.valueOf(LocalDateTime.now().minusHours(2));
+        // Codes left behind by an instance that was killed, and our own rows gone quiet
+        jdbcTemplate.update("INSERT INTO short_code_pool (code, reserved_at, reserved_by) VALUES ('lost1', ?, 'dead')",
+                stale);
+        jdbcTemplate.update("INSERT INTO short_code_pool (code, reserved_at, reserved_by) VALUES ('lost2', ?, NULL)",
+                stale);
+        jdbcTemplate.update("UPDATE short_code_pool SET reserved_at = ? WHERE code NOT LIKE 'lost%'", stale);
+
+        pool.cleanUp();
+
+        List<String> codes = jdbcTemplate.queryForList("SELECT code FROM short_code_pool", String.class);
+        assertEquals(50, codes.size());
+        assertTrue(codes.stream().noneMatch(code -> code.startsWith("lost")));
+    }
+
+    @Test
+    void releaseReturnsQueuedCodes() throws InterruptedException {
+        pool.start();
+        awaitDepth(50);
+        String kept = pool.take();
+
+        pool.release();
+
+        assertEquals(List.of(kept), jdbcTemplate.queryForList("SELECT code FROM short_code_pool", String.class));
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM short_code_pool", Integer.class);
+    }
+
+    private void awaitDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("url.code.pool.depth").gauge().value() < depth) {
+            assertTrue(System.currentTimeMillis() < deadline, "pool did not refill to " + depth);
+            Thread.sleep(1);
+        }
+    }
+}
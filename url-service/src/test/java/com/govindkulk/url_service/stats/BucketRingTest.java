@@ -0,0 +1,79 @@
+package com.govindkulk.url_service.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BucketRingTest {
+
+    @Test
+    void holdsTheBucketsUpToTheHead() {
+        BucketRing ring = new BucketRing(4, 10);
+        assertEquals(7, ring.first());
+        ring.add(7, 1);
+        ring.add(10, 2);
+        ring.add(10, 3);
+
+        assertEquals(1, ring.get(7));
+        assertEquals(5, ring.get(10));
+        assertEquals(0, ring.get(8));
+        assertEquals(0, ring.get(11), "buckets after the head are empty");
+        assertTrue(ring.covers(7));
+        assertFalse(ring.covers(6));
+    }
+
+    @Test
+    void bucketsOlderThanTheWindowAreIgnored() {
+        BucketRing ring = new BucketRing(4, 10);
+        ring.add(6, 5);
+
+        assertEquals(0, ring.get(6));
+        assertEquals(0, ring.get(10), "an ignored bucket must not land in the slot it would share");
+    }
+
+    @Test
+    void movingTheHeadClearsOnlyTheReusedSlots() {
+        BucketRing ring = new BucketRing(4, 10);
+        for (long bucket = 7; bucket <= 10; bucket++) {
+            ring.add(bucket, bucket);
+        }
+        ring.add(12, 1); // wraps onto the slots of 8 and 9
+
+        assertEquals(9, ring.first());
+        assertEquals(0, ring.get(8), "dropped out of the window");
+        assertEquals(9, ring.get(9));
+        assertEquals(10, ring.get(10));
+        assertEquals(0, ring.get(11), "skipped bucket is empty, not the old 7");
+        assertEquals(1, ring.get(12));
+        assertFalse(ring.covers(8));
+        assertTrue(ring.covers(9));
+    }
+
+    @Test
+    void jumpPastTheWholeWindowClearsEverything() {
+        BucketRing ring = new BucketRing(4, 10);
+        for (long bucket = 7; bucket <= 10; bucket++) {
+            ring.add(bucket, 1);
+        }
+        ring.add(1_000_000, 2);
+
+        assertEquals(999_997, ring.first());
+        for (long bucket = 999_997; bucket < 1_000_000; bucket++) {
+            assertEquals(0, ring.get(bucket));
+        }
+        assertEquals(2, ring.get(1_000_000));
+        assertEquals(0, ring.get(10));
+    }
+
+    @Test
+    void lateClicksWithinTheWindowAreStillCounted() {
+        BucketRing ring = new BucketRing(4, 10);
+        ring.add(12, 1);
+        ring.add(10, 4);
+
+        assertEquals(4, ring.get(10));
+        assertEquals(1, ring.get(12));
+    }
+}
@@ -0,0 +1,217 @@
+package com.govindkulk.url_service.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.govindkulk.url_service.clicklog.ClickEvent;
+import com.govindkulk.url_service.clicklog.ClickEventLog;
+import com.govindkulk.url_service.clicklog.UserAgentClass;
+import com.govindkulk.url_service.config.ClickLogConfig;
+import com.govindkulk.url_service.config.ClickStatsConfig;
+import com.govindkulk.url_service.dto.ClickStatsResponse;
+import com.govindkulk.url_service.exception.UrlNotFoundException;
+import com.govindkulk.url_service.model.StatsGranularity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClickStatsServiceTest {
+
+    private static final String LOG_ID = "log-1";
+
+    private final ClickStatsConfig config = new ClickStatsConfig();
+    private final FakeStore store = new FakeStore();
+    private ClickStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        ClickEventLog clickEventLog = new ClickEventLog(new ClickLogConfig(), new SimpleMeterRegistry()) {
+            @Override
+            public String id() {
+                return LOG_ID;
+            }
+        };
+        service = new ClickStatsService(config, store, clickEventLog, new SimpleMeterRegistry());
+        store.owners.put("abc", 1L);
+    }
+
+    @Test
+    void clicksAtOrBelowTheStoredOffsetAreNotCountedAgain() {
+        store.offset = 5;
+        long now = System.currentTimeMillis();
+
+        service.onClicks(List.of(click(3, "abc", now), click(5, "abc", now), click(6, "abc", now), click(7, "abc", now)));
+
+        assertEquals(1, store.applied.size());
+        assertEquals(7, store.appliedPositions.get(0));
+        assertEquals(2L, store.applied.get(0).get(key("abc", StatsGranularity.MINUTE, now)));
+        assertEquals(2L, store.applied.get(0).get(key("abc", StatsGranularity.HOUR, now)));
+        assertEquals(2L, store.applied.get(0).get(key("abc", StatsGranularity.DAY, now)));
+
+        // Redelivery of the same batch, as after a failed checkpoint write
+        service.onClicks(List.of(click(6, "abc", now), click(7, "abc", now)));
+        assertEquals(1, store.applied.size());
+
+        service.onClicks(List.of(click(7, "abc", now), click(8, "abc", now)));
+        assertEquals(2, store.applied.size());
+        assertEquals(8, store.appliedPositions.get(1));
+        assertEquals(1L, store.applied.get(1).get(key("abc", StatsGranularity.MINUTE, now)));
+    }
+
+    @Test
+    void offsetIsReadOnlyOnce() {
+        store.offset = -1;
+        long now = System.currentTimeMillis();
+        service.onClicks(List.of(click(1, "abc", now)));
+        store.offset = 100; // another writer's offset is not ours to honour mid-run
+        service.onClicks(List.of(click(2, "abc", now)));
+
+        assertEquals(List.of(1L, 2L), store.appliedPositions);
+        assertEquals(1, store.offsetReads);
+    }
+
+    @Test
+    void disabledStatsIgnoreClicks() {
+        config.setEnabled(false);
+        service.onClicks(List.of(click(1, "abc", System.currentTimeMillis())));
+
+        assertTrue(store.applied.isEmpty());
+    }
+
+    @Test
+    void recentBucketsAreServedFromMemoryAndFollowNewClicks() {
+        long now = System.currentTimeMillis();
+        Instant from = Instant.ofEpochMilli(now).minus(Duration.ofMinutes(10));
+        Instant to = Instant.ofEpochMilli(now).plus(Duration.ofMinutes(1));
+        assertEquals(0, service.getClickStats("abc", 1L, StatsGranularity.MINUTE, from, to).total());
+
+        service.onClicks(List.of(click(1, "abc", now), click(2, "abc", now), click(3, "other", now)));
+        ClickStatsResponse stats = service.getClickStats("abc", 1L, StatsGranularity.MINUTE, from, to);
+
+        assertEquals(2, stats.total());
+        assertEquals(0, store.rangeReads, "window is in memory");
+        long minute = StatsGranularity.MINUTE.bucketStart(now);
+        assertEquals(2, stats.buckets().stream()
+                .filter(bucket -> bucket.start().toEpochMilli() == minute)
+                .mapToLong(ClickStatsResponse.Bucket::clicks).sum());
+    }
+
+    @Test
+    void rangesOlderThanTheWindowAreReadFromTheStore() {
+        Instant to = Instant.ofEpochMilli(StatsGranularity.DAY.bucketStart(System.currentTimeMillis()))
+                .minus(Duration.ofDays(40));
+        Instant from = to.minus(Duration.ofDays(3));
+
+        ClickStatsResponse stats = service.getClickStats("abc", 1L, StatsGranularity.DAY, from, to);
+
+        assertEquals(1, store.rangeReads);
+        assertEquals(3, stats.buckets().size());
+    }
+
+    @Test
+    void emptyOrReversedRangesAreRejected() {
+        Instant now = Instant.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getClickStats("abc", 1L, StatsGranularity.HOUR, now, now));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getClickStats("abc", 1L, StatsGranularity.HOUR, now, now.minusSeconds(1)));
+    }
+
+    @Test
+    void rangesWithTooManyBucketsAreRejected() {
+        config.setMaxBuckets(24);
+        Instant to = Instant.now();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getClickStats("abc", 1L, StatsGranularity.HOUR, to.minus(Duration.ofHours(25)), to));
+        assertEquals(24, service.getClickStats("abc", 1L, StatsGranularity.HOUR,
+                Instant.ofEpochMilli(StatsGranularity.HOUR.bucketStart(to.toEpochMilli())).minus(Duration.ofHours(23)),
+                to).buckets().size());
+    }
+
+    @Test
+    void rangesPastRetentionAreRejected() {
+        Instant to = Instant.now();
+
+        assertThrows(IllegalArgumentException.class, () -> service.getClickStats("abc", 1L, StatsGranularity.MINUTE,
+                to.minus(config.getMinuteRetention()).minus(Duration.ofMinutes(5)), to.minus(Duration.ofHours(20))));
+        assertThrows(IllegalArgumentException.class, () -> service.getClickStats("abc", 1L, StatsGranularity.HOUR,
+                to.minus(config.getHourRetention()).minus(Duration.ofHours(2)), to.minus(Duration.ofDays(60))));
+    }
+
+    @Test
+    void unknownLinksAndOtherUsersLinksAreNotFound() {
+        Instant to = Instant.now();
+        Instant from = to.minus(Duration.ofHours(1));
+
+        assertThrows(UrlNotFoundException.class,
+                () -> service.getClickStats("missing", 1L, StatsGranularity.MINUTE, from, to));
+        assertThrows(UrlNotFoundException.class,
+                () -> service.getClickStats("abc", 2L, StatsGranularity.MINUTE, from, to));
+    }
+
+    private static ClickEvent click(long position, String shortUrl, long timestamp) {
+        return new ClickEvent(position, shortUrl, timestamp, 0L, UserAgentClass.DESKTOP, 0L);
+    }
+
+    private static ClickRollupStore.Key key(String shortUrl, StatsGranularity granularity, long timestamp) {
+        return new ClickRollupStore.Key(shortUrl, granularity, granularity.bucketStart(timestamp));
+    }
+
+    /**
+     * In-memory stand-in for the click_rollup tables
+     */
+    private static final class FakeStore extends ClickRollupStore {
+
+        final Map<String, Long> owners = new HashMap<>();
+        final List<SortedMap<Key, Long>> applied = new ArrayList<>();
+        final List<Long> appliedPositions = new ArrayList<>();
+        long offset = -1;
+        int offsetReads;
+        int rangeReads;
+
+        FakeStore() {
+            super(null, null, null);
+        }
+
+        @Override
+        public long offset(String logId) {
+            assertEquals(LOG_ID, logId);
+            offsetReads++;
+            return offset;
+        }
+
+        @Override
+        public void apply(SortedMap<Key, Long> increments, String logId, long position) {
+            applied.add(new TreeMap<>(increments));
+            appliedPositions.add(position);
+        }
+
+        @Override
+        public void load(String shortUrl, long minutesFrom, long hoursFrom, long daysFrom, RowHandler handler) {
+        }
+
+        @Override
+        public long[] range(String shortUrl, StatsGranularity granularity, long from, int count) {
+            rangeReads++;
+            return new long[count];
+        }
+
+        @Override
+        public Long ownerOf(String shortUrl) {
+            return owners.get(shortUrl);
+        }
+    }
+}
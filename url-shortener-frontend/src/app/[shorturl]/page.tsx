@@ -1,16 +1,25 @@
+import { headers } from "next/headers";
 import { redirect } from "next/navigation";
 
 export default async function Page({ params }: { params: Promise<{ shorturl: string }> }) {
 
   const {shorturl} = await params;
+  // Name the visitor so the gateway rate limits them, not this server. Only a header set by
+  // our own reverse proxy is trusted (VISITOR_IP_HEADER); any other header is under the
+  // client's control, so without one every lookup shares this server's limit
+  const visitorHeader = process.env.VISITOR_IP_HEADER;
+  const visitor = visitorHeader
+    ? (await headers()).get(visitorHeader)?.split(",").pop()?.trim()
+    : undefined;
   // Call the backend directly from the server
   const res = await fetch(`http://localhost:8080/api/urls/${shorturl}`, {
     // Don't follow redirects automatically
     redirect: "manual",
+    headers: visitor ? { "X-Forwarded-For": visitor } : undefined,
   });
 
-  // If backend returns a 302, get the Location header and redirect
-  if (res.status === 302) {
+  // If backend returns a 301 (permanent link) or 302, get the Location header and redirect
+  if (res.status === 301 || res.status === 302) {
     const location = res.headers.get("location");
     if (location) {
       redirect(location);
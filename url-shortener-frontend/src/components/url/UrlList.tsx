@@ -11,13 +11,16 @@ import { copyToClipboard, formatDate } from "@/lib/utils"
 
 export function UrlList() {
   const [urls, setUrls] = useState<UrlMapping[]>([])
+  const [nextCursor, setNextCursor] = useState<string | null>(null)
   const [isLoading, setIsLoading] = useState(true)
+  const [isLoadingMore, setIsLoadingMore] = useState(false)
   const [copiedUrl, setCopiedUrl] = useState<string | null>(null)
 
   const fetchUrls = async () => {
     try {
-      const data = await apiService.getUserUrls()
-      setUrls(data)
+      const page = await apiService.getUserUrls()
+      setUrls(page.items)
+      setNextCursor(page.nextCursor)
     } catch (error) {
       toast.error("Failed to fetch URLs")
     } finally {
@@ -25,6 +28,20 @@ export function UrlList() {
     }
   }
 
+  const fetchMore = async () => {
+    if (!nextCursor) return
+    setIsLoadingMore(true)
+    try {
+      const page = await apiService.getUserUrls(nextCursor)
+      setUrls((current) => [...current, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+      toast.error("Failed to fetch URLs")
+    } finally {
+      setIsLoadingMore(false)
+    }
+  }
+
   useEffect(() => {
     fetchUrls()
   }, [])
@@ -33,7 +50,8 @@ export function UrlList() {
     try {
       await apiService.deleteUrl(shortUrl)
       toast.success("URL deleted successfully!")
-      fetchUrls() // Refresh the list
+      // Drop it locally; refetching would lose the pages already loaded
+      setUrls((current) => current.filter((url) => url.shortUrl !== shortUrl))
     } catch (error) {
       toast.error("Failed to delete URL")
     }
@@ -143,6 +161,14 @@ export function UrlList() {
             </div>
           ))}
         </div>
+        {nextCursor && (
+          <div className="flex justify-center pt-4">
+            <Button onClick={fetchMore} variant="outline" disabled={isLoadingMore}>
+              {isLoadingMore && <Loader2 className="mr-2 h-4 w-4 animate-spin" />}
+              Load more
+            </Button>
+          </div>
+        )}
       </CardContent>
     </Card>
   )
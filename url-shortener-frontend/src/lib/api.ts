@@ -1,4 +1,4 @@
-import { TokenResponse, AuthResponse, LoginRequest, RegisterRequest, CreateUrlRequest, CreateShortUrlResponse, UrlMapping } from '@/types'
+import { TokenResponse, AuthResponse, LoginRequest, RegisterRequest, CreateUrlRequest, CreateShortUrlResponse, UrlMapping, UrlPage } from '@/types'
 
 const API_BASE_URL = process.env.NEXT_PUBLIC_API_BASE_URL || 'http://localhost:8080'
 
@@ -88,8 +88,12 @@ class ApiService {
     return response.json()
   }
 
-  async getUserUrls(): Promise<UrlMapping[]> {
-    const response = await fetch(`${API_BASE_URL}/api/urls`, {
+  async getUserUrls(cursor?: string | null, limit = 20): Promise<UrlPage> {
+    const params = new URLSearchParams({ limit: String(limit) })
+    if (cursor) {
+      params.set('cursor', cursor)
+    }
+    const response = await fetch(`${API_BASE_URL}/api/urls?${params}`, {
       headers: {...this.getUserIdHeader(), ...this.getAuthHeaders()},
     })
 
@@ -45,6 +45,11 @@ export interface UrlMapping {
   clickCount: number
 }
 
+export interface UrlPage {
+  items: UrlMapping[]
+  nextCursor: string | null
+}
+
 export interface User {
   id: number
   username: string
@@ -0,0 +1,218 @@
+package com.govindkulk.user_service.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.govindkulk.user_service.UserServiceApplication;
+import com.govindkulk.user_service.dto.TokenResponse;
+
+/**
+ * Login flood load test: BCrypt on request threads vs the bounded hashing executor
+ *
+ * Starts user-service on H2 once per mode. Flood clients send POST /api/auth/login
+ * as fast as they can (waiting out Retry-After when shed with a 503) while a few
+ * probe clients send POST /api/auth/refresh, which does no password hashing. The
+ * probe latency shows whether the rest of the service stays responsive while
+ * logins saturate the CPU.
+ *
+ * Modes: unbounded (password-hashing.enabled=false, every Tomcat thread may hash)
+ * and bounded (the default configuration).
+ *
+ * Options (--name=value): flood, probes, duration, warmup, queue-capacity,
+ * modes (comma separated: unbounded,bounded).
+ */
+public class LoginFloodLoadTest {
+
+    private static final String USERNAME = "load-test";
+    private static final String PASSWORD = "load-test-password";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "flood", "400",
+                "probes", "4",
+                "duration", "20s",
+                "warmup", "5s",
+                "queue-capacity", "32",
+                "modes", "unbounded,bounded"));
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+
+        List<String> report = new ArrayList<>();
+        for (String mode : options.get("modes").split(",")) {
+            report.add(run(mode.trim(), options));
+        }
+
+        System.out.printf("%n%s%n", options);
+        System.out.printf("%-10s %9s %9s %11s %11s %11s %11s %11s %8s%n", "mode", "logins/s", "shed 503",
+                "login p50", "refresh/s", "refresh p50", "refresh p99", "refresh max", "errors");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, Map<String, String> options) throws Exception {
+        Duration duration = parse(options.get("duration"));
+        Duration warmup = parse(options.get("warmup"));
+
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                UserServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(arguments(mode, options))) {
+
+            String base = "http://localhost:" + context.getWebServer().getPort() + "/api/auth/";
+
+            try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                String refreshToken = register(http, base);
+
+                System.out.printf("%s: warming up for %s%n", mode, warmup);
+                drive(http, base, refreshToken, options, warmup);
+                System.out.printf("%s: measuring for %s with %s login clients and %s refresh clients%n",
+                        mode, duration, options.get("flood"), options.get("probes"));
+                Result result = drive(http, base, refreshToken, options, duration);
+
+                double seconds = duration.toMillis() / 1000.0;
+                return String.format("%-10s %9.1f %9d %9.1f ms %11.1f %8.1f ms %8.1f ms %8.1f ms %8d", mode,
+                        result.logins.length / seconds, result.shed, percentile(result.logins, 0.50),
+                        result.refreshes.length / seconds, percentile(result.refreshes, 0.50),
+                        percentile(result.refreshes, 0.99), percentile(result.refreshes, 1.0), result.errors);
+            }
+        }
+    }
+
+    private static String[] arguments(String mode, Map<String, String> options) {
+        List<String> properties = List.of(
+                "password-hashing.enabled=" + "bounded".equals(mode),
+                "password-hashing.queue-capacity=" + options.get("queue-capacity"),
+                // The refresh probes replay one refresh token, which rotation would reject
+                "token-state.enabled=false",
+                "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.security=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "eureka.client.enabled=false",
+                "server.port=0");
+        // Passed as command line arguments so they win over user-service's application.yml
+        return properties.stream().map(p -> "--" + p).toArray(String[]::new);
+    }
+
+    private static String register(HttpClient http, String base) throws Exception {
+        String body = "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\",\"email\":\"load@test\"}";
+        HttpResponse<String> response = http.send(post(base + "register", body), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("register failed: " + response.statusCode() + " " + response.body());
+        }
+        return new ObjectMapper().readValue(response.body(), TokenResponse.class).getRefreshToken();
+    }
+
+    private static Result drive(HttpClient http, String base, String refreshToken, Map<String, String> options,
+            Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        Queue<long[]> logins = new ConcurrentLinkedQueue<>();
+        Queue<long[]> refreshes = new ConcurrentLinkedQueue<>();
+
+        String loginBody = "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}";
+        HttpRequest login = post(base + "login", loginBody);
+        HttpRequest refresh = HttpRequest.newBuilder(URI.create(base + "refresh"))
+                .header("Authorization", "Bearer " + refreshToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < Integer.parseInt(options.get("flood")); c++) {
+                clients.submit(() -> logins.add(loop(http, login, deadline, errors, shed)));
+            }
+            for (int c = 0; c < Integer.parseInt(options.get("probes")); c++) {
+                clients.submit(() -> refreshes.add(loop(http, refresh, deadline, errors, shed)));
+            }
+            // Closing the client pool waits for every client to reach the deadline
+        }
+
+        return new Result(merge(logins), merge(refreshes), shed.get(), errors.get());
+    }
+
+    // Sends the request until the deadline; returns the latencies of 200 responses
+    private static long[] loop(HttpClient http, HttpRequest request, long deadline, AtomicLong errors, AtomicLong shed) {
+        long[] samples = new long[256];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 503) {
+                    shed.incrementAndGet();
+                    long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                    Thread.sleep(Duration.ofSeconds(retryAfter));
+                    continue;
+                }
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(samples, count);
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static long[] merge(Queue<long[]> perClient) {
+        return perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static Duration parse(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    private record Result(long[] logins, long[] refreshes, long shed, long errors) {
+    }
+}
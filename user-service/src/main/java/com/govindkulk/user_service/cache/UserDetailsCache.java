@@ -0,0 +1,70 @@
+package com.govindkulk.user_service.cache;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.govindkulk.user_service.config.UserDetailsCacheConfig;
+import com.govindkulk.user_service.model.User;
+import com.govindkulk.user_service.repository.UserRepository;
+
+/**
+ * User Details Cache
+ *
+ * Authentication principals for JwtAuthFilter, so an authenticated request does not
+ * query users and user_roles every time.
+ *
+ * Key Features:
+ * - Entries are immutable snapshots (username, authorities and account flags) with
+ *   no password; login still goes through CustomUserDetailsService and the database
+ * - Size-bounded, each entry expiring user-details-cache.ttl after it was loaded
+ * - Evicted by UserChangeListener once a change to a user, its roles or its flags
+ *   commits; the TTL bounds staleness for changes made by other instances
+ * - Unknown usernames are not cached
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserDetailsCacheConfig config;
+    private final UserRepository userRepository;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(UserDetailsCacheConfig config, UserRepository userRepository) {
+        this.config = config;
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .build();
+    }
+
+    /**
+     * @throws UsernameNotFoundException if no user has this username
+     */
+    public UserDetails get(String username) throws UsernameNotFoundException {
+        if (!config.isEnabled()) {
+            return load(username);
+        }
+        return cache.get(username, this::load);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    private UserDetails load(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        "User not found with username: " + username));
+        return org.springframework.security.core.userdetails.User.withUsername(user.getUsername())
+                .password("")
+                .authorities(user.getAuthorities())
+                .disabled(!user.isEnabled())
+                .accountLocked(!user.isAccountNonLocked())
+                .accountExpired(!user.isAccountNonExpired())
+                .credentialsExpired(!user.isCredentialsNonExpired())
+                .build();
+    }
+}
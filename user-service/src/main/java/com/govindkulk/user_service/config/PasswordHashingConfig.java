@@ -0,0 +1,52 @@
+package com.govindkulk.user_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Password Hashing Configuration Properties
+ * Sizes the executor that runs BCrypt for login and register
+ */
+@Component
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingConfig {
+
+    private boolean enabled = true;                      // false hashes on the request thread
+    private int threads = 0;                             // 0 = one per available core
+    private int queueCapacity = 32;                      // hashes waiting for a thread before requests are shed
+    private Duration retryAfter = Duration.ofSeconds(1); // Retry-After sent with a 503 when shedding
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
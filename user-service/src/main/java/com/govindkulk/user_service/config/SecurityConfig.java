@@ -1,6 +1,7 @@
 package com.govindkulk.user_service.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +18,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import com.govindkulk.user_service.jwt.JwtAuthFilter;
+import com.govindkulk.user_service.security.BoundedPasswordEncoder;
 import com.govindkulk.user_service.service.CustomUserDetailsService;
 
 
@@ -46,7 +48,7 @@ public class SecurityConfig {
 
         http.
             authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/api/auth/**", "/h2-console/**").permitAll()
+                auth.requestMatchers("/api/auth/**", "/h2-console/**", "/actuator/health", "/actuator/metrics/**").permitAll()
                     .anyRequest().authenticated()
             )
             .csrf(csrf -> csrf.disable())
@@ -61,9 +63,12 @@ public class SecurityConfig {
 
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider(){
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder){
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
+        // Unknown usernames keep surfacing as UsernameNotFoundException ("Username does not exist.")
+        // now that login no longer looks the user up itself
+        provider.setHideUserNotFoundExceptions(false);
         return provider;
     }
 
@@ -72,8 +77,15 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+   /**
+    * BCrypt, run on the bounded hashing executor unless password-hashing.enabled is false
+    */
    @Bean
-   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+   public PasswordEncoder passwordEncoder(PasswordHashingConfig passwordHashingConfig, MeterRegistry meterRegistry) {
+    PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+    if (!passwordHashingConfig.isEnabled()) {
+        return bcrypt;
+    }
+    return new BoundedPasswordEncoder(bcrypt, passwordHashingConfig, meterRegistry);
    }
 }
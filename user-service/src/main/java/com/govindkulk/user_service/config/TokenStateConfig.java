@@ -0,0 +1,97 @@
+package com.govindkulk.user_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token State Configuration Properties
+ * Controls the refresh token rotation/revocation store and its snapshot file
+ */
+@Component
+@ConfigurationProperties(prefix = "token-state")
+public class TokenStateConfig {
+
+    private boolean enabled = true;                          // false accepts any valid refresh token, as before
+    private Duration tick = Duration.ofMinutes(1);           // expiry granularity of the time wheel
+    private int initialCapacity = 1024;                      // ids per set before the first resize
+    private boolean shared = true;                           // share state with other instances via token_state
+    private long syncIntervalMs = 2000;                      // how often changes are exchanged (shared)
+    private Duration syncOverlap = Duration.ofSeconds(30);   // re-read window for late commits and clock skew (shared)
+    private long purgeIntervalMs = 600000;                   // how often expired rows are deleted (shared)
+    private String snapshotPath = "data/token-state.bin";    // empty disables snapshots; unused when shared
+    private long snapshotIntervalMs = 30000;                 // how often a changed store is written to disk
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTick() {
+        return tick;
+    }
+
+    public void setTick(Duration tick) {
+        this.tick = tick;
+    }
+
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    public void setInitialCapacity(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
+    public long getSyncIntervalMs() {
+        return syncIntervalMs;
+    }
+
+    public void setSyncIntervalMs(long syncIntervalMs) {
+        this.syncIntervalMs = syncIntervalMs;
+    }
+
+    public Duration getSyncOverlap() {
+        return syncOverlap;
+    }
+
+    public void setSyncOverlap(Duration syncOverlap) {
+        this.syncOverlap = syncOverlap;
+    }
+
+    public long getPurgeIntervalMs() {
+        return purgeIntervalMs;
+    }
+
+    public void setPurgeIntervalMs(long purgeIntervalMs) {
+        this.purgeIntervalMs = purgeIntervalMs;
+    }
+
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public void setSnapshotPath(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    public long getSnapshotIntervalMs() {
+        return snapshotIntervalMs;
+    }
+
+    public void setSnapshotIntervalMs(long snapshotIntervalMs) {
+        this.snapshotIntervalMs = snapshotIntervalMs;
+    }
+}
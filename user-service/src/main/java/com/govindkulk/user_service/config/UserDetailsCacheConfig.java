@@ -0,0 +1,43 @@
+package com.govindkulk.user_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * User Details Cache Configuration Properties
+ * Controls the principal cache used by JwtAuthFilter
+ */
+@Component
+@ConfigurationProperties(prefix = "user-details-cache")
+public class UserDetailsCacheConfig {
+
+    private boolean enabled = true;
+    private long maximumSize = 10000;              // principals kept in memory
+    private Duration ttl = Duration.ofSeconds(30); // bounds staleness for changes made by other instances
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
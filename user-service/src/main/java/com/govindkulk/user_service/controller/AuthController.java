@@ -108,12 +108,15 @@ public class AuthController {
     }
 
     /**
-     * Logout endpoint (client-side token removal)
+     * Logout endpoint
+     * The client drops its tokens; a refresh token sent as "Authorization: Bearer"
+     * is revoked along with every token rotated from it
      */
     @PostMapping("/logout")
-    public ResponseEntity<String> logout() {
-        // In a stateless JWT system, logout is handled client-side
-        // You could implement a token blacklist here for additional security
+    public ResponseEntity<String> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            authService.logout(authHeader.substring(7));
+        }
         return ResponseEntity.ok("Logged out successfully");
     }
 }
@@ -4,6 +4,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,12 +14,20 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.slf4j.Logger;
 
+import com.govindkulk.user_service.config.PasswordHashingConfig;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     
     private final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final PasswordHashingConfig passwordHashingConfig;
+
+    public GlobalExceptionHandler(PasswordHashingConfig passwordHashingConfig){
+        this.passwordHashingConfig = passwordHashingConfig;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex){
         Map<String, Object> errorMap = new HashMap<>();
@@ -65,6 +75,19 @@ public class GlobalExceptionHandler {
 
     }
 
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingOverloaded(PasswordHashingOverloadedException ex){
+        Map<String, Object> errorMap = new HashMap<>();
+        errorMap.put("message", ex.getMessage());
+        errorMap.put("success", false);
+
+        // shed quickly; the client should back off instead of holding a request thread
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, passwordHashingConfig.getRetryAfter().toSeconds())))
+                .body(errorMap);
+
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleException(RuntimeException ex){
         Map<String, Object> errorMap = new HashMap<>();
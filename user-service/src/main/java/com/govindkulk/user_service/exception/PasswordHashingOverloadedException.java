@@ -0,0 +1,11 @@
+package com.govindkulk.user_service.exception;
+
+/**
+ * Thrown when the password hashing queue is full; mapped to 503 with Retry-After
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -5,15 +5,19 @@ import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.couchbase.CouchbaseProperties.Authentication;
+import org.springframework.security.authentication.AccountStatusException;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.govindkulk.user_service.service.CustomUserDetailsService;
+import com.govindkulk.user_service.cache.UserDetailsCache;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,48 +28,50 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
 
-    private final CustomUserDetailsService customUserDetailsService;
+    private final UserDetailsCache userDetailsCache;
+
+    private final AccountStatusUserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
 
     private final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
     
-    public JwtAuthFilter(JwtTokenUtil jwtTokenUtil, CustomUserDetailsService customUserDetailsService){
+    public JwtAuthFilter(JwtTokenUtil jwtTokenUtil, UserDetailsCache userDetailsCache){
         this.jwtTokenUtil = jwtTokenUtil;
-        this.customUserDetailsService = customUserDetailsService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
             String authHeader = request.getHeader("Authorization");
-            String username = null;
-            String token = null;
+            Claims claims = null;
 
             if(authHeader != null && authHeader.startsWith("Bearer ")){
-                try{
-                    token = authHeader.substring(7);
-                    username = jwtTokenUtil.extractUsername(token);
-                }catch(Exception e){
+                // verified once; an invalid or expired token, or a refresh token, yields null
+                claims = jwtTokenUtil.validateAccessToken(authHeader.substring(7));
+                if(claims == null){
                     logger.warn("Invalid token");
                 }
             }
 
-            if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
+            if(claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null){
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+                try{
+                    // the token is verified before the user is looked up, and the lookup is cached
+                    UserDetails userDetails = userDetailsCache.get(claims.getSubject());
+                    accountStatusChecker.check(userDetails);
 
-                if(jwtTokenUtil.validateToken(token)){
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null,userDetails.getAuthorities());
-    
-    
+
+
                     authentication.setDetails(new WebAuthenticationDetails(request));
-    
-                    logger.info("Web Details {}", authentication.getDetails());
-    
+
+                    logger.debug("Web Details {}", authentication.getDetails());
+
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-                    
+                }catch(UsernameNotFoundException | AccountStatusException e){
+                    logger.warn("Token rejected: {}", e.getMessage());
                 }
 
-
             }
 
             doFilter(request, response, filterChain);
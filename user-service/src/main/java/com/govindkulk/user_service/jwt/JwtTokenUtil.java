@@ -2,209 +2,183 @@ package com.govindkulk.user_service.jwt;
 
 import com.govindkulk.user_service.config.JwtConfig;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.jackson.io.JacksonDeserializer;
+import io.jsonwebtoken.jackson.io.JacksonSerializer;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * Enhanced JWT Token Utility Class
  * Handles both access and refresh token generation, validation, and extraction
+ *
+ * The signing key, parser and JSON (de)serializer are built once: jjwt otherwise
+ * looks them up through ServiceLoader on every token it builds or parses.
+ * Validation parses a token once and returns its verified claims for reuse.
+ *
+ * Refresh tokens carry a random id (jti) and the id of their family (fid), the
+ * chain of tokens started by one login, for RefreshTokenStore. Both are 64-bit
+ * values written in base 36.
  */
 @Component
 public class JwtTokenUtil {
 
-    @Autowired
-    private JwtConfig jwtConfig;
+    private static final String ACCESS = "ACCESS";
+    private static final String REFRESH = "REFRESH";
+    private static final String FAMILY_CLAIM = "fid";
+
+    private final JwtConfig jwtConfig;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Serializer<Map<String, ?>> serializer = new JacksonSerializer<>();
+    private final SecureRandom random = new SecureRandom();
+
+    public JwtTokenUtil(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+        this.signingKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .deserializeJsonWith(new JacksonDeserializer<>())
+                .build();
+    }
 
     /**
      * Generate access token for a user
      */
     public String generateAccessToken(UserDetails userDetails , Long userId) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "ACCESS");
-        claims.put("userid", userId);
-        
-        // use userId for subject
-        return createToken(claims, userDetails.getUsername(), jwtConfig.getAccessTokenExpiration());
+        return createToken(ACCESS, userId, userDetails.getUsername(), new Date(), jwtConfig.getAccessTokenExpiration()).compact();
     }
     
     /**
-     * Generate refresh token for a user
+     * Generate refresh token for a user, starting a new token family
      */
     public String generateRefreshToken(UserDetails userDetails, Long userId) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "REFRESH");
-        claims.put("userid", userId);
-        return createToken(claims, userDetails.getUsername(), jwtConfig.getRefreshTokenExpiration());
+        return createRefreshToken(userId, userDetails.getUsername(), new Date(), random.nextLong());
     }
 
     /**
-     * Generate both access and refresh tokens
+     * Generate both access and refresh tokens, issued at the same instant, starting
+     * a new refresh token family
      */
     public Map<String, String> generateTokenPair(UserDetails userDetails, Long userId) {
-        Map<String, String> tokens = new HashMap<>();
-        tokens.put("accessToken", generateAccessToken(userDetails, userId));
-        tokens.put("refreshToken", generateRefreshToken(userDetails, userId));
-        return tokens;
+        return generateTokenPair(userDetails, userId, random.nextLong());
     }
 
-    // /**
-    //  * Generate a JWT token for a user (legacy method)
-    //  */
-    // public String generateToken(UserDetails userDetails) {
-    //     Map<String, Object> claims = new HashMap<>();
-    //     return createToken(claims, userDetails.getUsername(), jwtConfig.getAccessTokenExpiration());
-    // }
-
-    // /**
-    //  * Generate a JWT token with custom claims (legacy method)
-    //  */
-    // public String generateToken(String username, String role) {
-    //     Map<String, Object> claims = new HashMap<>();
-    //     claims.put("role", role);
-    //     return createToken(claims, username, jwtConfig.getAccessTokenExpiration());
-    // }
-
     /**
-     * Create JWT token with claims, subject, and expiration
+     * Generate both access and refresh tokens, the refresh token continuing the given family
      */
-    private String createToken(Map<String, Object> claims, String subject, long expiration) {
+    public Map<String, String> generateTokenPair(UserDetails userDetails, Long userId, long familyId) {
+        String username = userDetails.getUsername();
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration);
-
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuer(jwtConfig.getIssuer())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
-    }
-
-    /**
-     * Extract username from JWT token
-     */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-        /* 
-         * 
-         * equivalent to
-         * return extractClaim(token, (Claims claims) -> claims.getSubject())
-         */
+        Map<String, String> tokens = new HashMap<>(4);
+        tokens.put("accessToken", createToken(ACCESS, userId, username, now, jwtConfig.getAccessTokenExpiration()).compact());
+        tokens.put("refreshToken", createRefreshToken(userId, username, now, familyId));
+        return tokens;
     }
 
-    /**
-     * Extract expiration date from JWT token
-     */
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-        /* 
-         * 
-         * equivalent to
-         * return extractClaim(token, (Claims claims) -> claims.getExpiration())
-         */
+    private String createRefreshToken(Long userId, String subject, Date issuedAt, long familyId) {
+        return createToken(REFRESH, userId, subject, issuedAt, jwtConfig.getRefreshTokenExpiration())
+                .setId(Long.toUnsignedString(random.nextLong(), Character.MAX_RADIX))
+                .claim(FAMILY_CLAIM, Long.toUnsignedString(familyId, Character.MAX_RADIX))
+                .compact();
     }
 
     /**
-     * Extract token type (ACCESS or REFRESH)
+     * Create JWT token with type and user id claims, subject, and expiration
      */
-    public String extractTokenType(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("type", String.class);
+    private JwtBuilder createToken(String type, Long userId, String subject, Date issuedAt, long expiration) {
+        return Jwts.builder()
+                .serializeToJsonWith(serializer)
+                .claim("type", type)
+                .claim("userid", userId)
+                .setSubject(subject)
+                .setIssuer(jwtConfig.getIssuer())
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(issuedAt.getTime() + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256);
     }
 
     /**
-     * Extract a specific claim from JWT token
+     * Verify a JWT token's signature and expiry in a single parse
+     *
+     * @return the token's claims, or null if the token is malformed, forged or expired
      */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public Claims validateToken(String token) {
+        try {
+            // the parser rejects expired tokens itself (ExpiredJwtException)
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
-     * Extract all claims from JWT token
+     * Validate a token used to authenticate a request; refresh tokens are refused so
+     * a revoked one cannot stand in for an access token
+     *
+     * @return the token's claims, or null if it is invalid or a refresh token
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims validateAccessToken(String token) {
+        Claims claims = validateToken(token);
+        return claims != null && !REFRESH.equals(claims.get("type", String.class)) ? claims : null;
     }
 
     /**
-     * Get the signing key for JWT
+     * Validate refresh token specifically
+     *
+     * @return the token's claims, or null if it is invalid or not a refresh token
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtConfig.getSecret().getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public Claims validateRefreshToken(String token) {
+        Claims claims = validateToken(token);
+        return claims != null && REFRESH.equals(claims.get("type", String.class)) ? claims : null;
     }
 
     /**
-     * Check if token is expired
+     * Id of a verified refresh token. Tokens issued before ids were added have
+     * none, so they are identified by a digest of the token itself.
      */
-    private Boolean isTokenExpired(String token) {
-
-        // before is a method of Date class that checks if the date is before the given date
-        return extractExpiration(token).before(new Date());
+    public long tokenId(Claims claims, String token) {
+        Long id = parseId(claims.getId());
+        return id != null ? id : digest(token);
     }
 
     /**
-     * Validate JWT token for a specific user
+     * Family of a verified refresh token; a token issued before families were
+     * added starts its own, named after the token
      */
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        // token is valid if the username is the same as the userDetails.getUsername() 
-        // and the token is not expired
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public long familyId(Claims claims, long tokenId) {
+        Long id = parseId(claims.get(FAMILY_CLAIM, String.class));
+        return id != null ? id : tokenId;
     }
 
-    /**
-     * Validate JWT token (without UserDetails)
-     */
-    public Boolean validateToken(String token) {
+    private static Long parseId(String value) {
+        if (value == null) {
+            return null;
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Long.parseUnsignedLong(value, Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
-    /**
-     * Validate refresh token specifically
-     */
-    public Boolean validateRefreshToken(String token) {
+    private static long digest(String token) {
         try {
-            if (!validateToken(token)) {
-                return false;
-            }
-            
-            String tokenType = extractTokenType(token);
-            return "REFRESH".equals(tokenType);
-        } catch (Exception e) {
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return ByteBuffer.wrap(hash).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
-
-    /**
-     * Extract role from JWT token
-     */
-    public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
-    }
-} 
-
-
+}
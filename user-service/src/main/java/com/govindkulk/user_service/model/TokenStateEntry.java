@@ -0,0 +1,68 @@
+package com.govindkulk.user_service.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A spent refresh token id or a revoked token family, shared between user-service
+ * instances through the token_state table.
+ * Rows are written and read with plain JDBC by RefreshTokenStore; this entity only
+ * defines the table. Duplicate rows are harmless, so there is no natural key.
+ */
+@Entity
+@Table(name = "token_state", indexes = {
+        @Index(name = "idx_token_state_recorded_at", columnList = "recorded_at"),
+        @Index(name = "idx_token_state_expires_at", columnList = "expires_at")
+})
+public class TokenStateEntry {
+
+    public static final short SPENT_TOKEN = 0;
+    public static final short REVOKED_FAMILY = 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "kind", nullable = false)
+    private short kind;
+
+    @Column(name = "entry_id", nullable = false)
+    private long entryId;
+
+    // The row is deleted once every token it can match has expired
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Other instances read rows recorded since their last sync
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    public TokenStateEntry() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public short getKind() {
+        return kind;
+    }
+
+    public long getEntryId() {
+        return entryId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+}
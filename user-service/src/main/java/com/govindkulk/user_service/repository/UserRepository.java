@@ -1,6 +1,7 @@
 package com.govindkulk.user_service.repository;
 
 import com.govindkulk.user_service.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -16,9 +17,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Spring Data JPA automatically creates a query like:
      * SELECT * FROM users WHERE username = ?
      * 
+     * Roles are fetched in the same statement.
+     * 
      * @param username the username to search for
      * @return Optional containing the user if found, empty otherwise
      */
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
 
     /**
@@ -1,11 +1,12 @@
 package com.govindkulk.user_service.service;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,11 +16,16 @@ import com.govindkulk.user_service.dto.AuthResponse;
 import com.govindkulk.user_service.dto.LoginRequest;
 import com.govindkulk.user_service.dto.RegisterRequest;
 import com.govindkulk.user_service.dto.TokenResponse;
+import com.govindkulk.user_service.exception.PasswordHashingOverloadedException;
 import com.govindkulk.user_service.exception.UnauthorizedException;
 import com.govindkulk.user_service.exception.UserAlreadyExistsException;
 import com.govindkulk.user_service.jwt.JwtTokenUtil;
 import com.govindkulk.user_service.model.User;
 import com.govindkulk.user_service.repository.UserRepository;
+import com.govindkulk.user_service.security.BoundedPasswordEncoder;
+import com.govindkulk.user_service.token.RefreshTokenStore;
+
+import io.jsonwebtoken.Claims;
 
 import java.util.HashSet;
 import java.util.Map;
@@ -50,19 +56,11 @@ public class AuthService {
     private JwtConfig jwtConfig;
 
     @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private RefreshTokenStore refreshTokenStore;
 
     public TokenResponse register(RegisterRequest request) {
 
-        // check if user already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new UserAlreadyExistsException("User already exists");
-        }
-
-        // check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new UserAlreadyExistsException("Email already exists");
-        }
+        rejectIfHashingSaturated();
 
         // just for fun ive used custom builder pattern for user
         // which is not necessary here
@@ -73,11 +71,15 @@ public class AuthService {
                 .setRoles(new HashSet<>(Set.of("ROLE_USER")))
                 .build();
 
-        userRepository.save(user);
-
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(request.getUsername());
+        // A single INSERT; the unique constraints on username and email detect duplicates
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException(isEmailConflict(e) ? "Email already exists" : "User already exists");
+        }
 
-        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(userDetails, user.getId());
+        // The saved entity is the principal; no need to read it back
+        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(user, user.getId());
         return new TokenResponse(
                 tokens.get("accessToken"),
                 tokens.get("refreshToken"),
@@ -87,18 +89,16 @@ public class AuthService {
 
     public TokenResponse login(LoginRequest request) {
 
-       Optional<User> user = userRepository.findByUsername(request.getUsername());
-       if (user.isEmpty()) {
-        throw new UsernameNotFoundException("User not found");
-       }
+       rejectIfHashingSaturated();
 
-        // check if password is correct
+        // check if password is correct; an unknown username surfaces as UsernameNotFoundException
 
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(userDetails, user.get().getId());
+        // the principal is the User entity loaded by CustomUserDetailsService
+        User user = (User) authentication.getPrincipal();
+        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(user, user.getId());
         return new TokenResponse(
                 tokens.get("accessToken"),
                 tokens.get("refreshToken"),
@@ -133,8 +133,7 @@ public class AuthService {
         String role = user.getRoles().iterator().next();
 
         // Generate tokens
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(user.getUsername());
-        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(userDetails, user.getId());
+        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(user, user.getId());
 
         return AuthResponse.success(
                 "Current user info",
@@ -145,21 +144,26 @@ public class AuthService {
 
     public TokenResponse refreshToken(String refreshToken) {
         // Validate refresh token
-        if (!jwtTokenUtil.validateRefreshToken(refreshToken)) {
+        Claims claims = jwtTokenUtil.validateRefreshToken(refreshToken);
+        if (claims == null) {
             throw new UnauthorizedException("Unauthorized Refresh Token");
         }
 
-        // Extract username and load user details
-        String username = jwtTokenUtil.extractUsername(refreshToken);
-        UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-
-        Optional<User> user = userRepository.findByUsername(username);
-        if (user.isEmpty()) {
-            throw new UsernameNotFoundException("User not found");
+        // Spend the token in memory; a token presented twice revokes its whole family
+        long tokenId = jwtTokenUtil.tokenId(claims, refreshToken);
+        long familyId = jwtTokenUtil.familyId(claims, tokenId);
+        switch (refreshTokenStore.rotate(tokenId, familyId, claims.getExpiration().getTime())) {
+            case REUSED -> throw new UnauthorizedException("Refresh token already used");
+            case REVOKED -> throw new UnauthorizedException("Refresh token revoked");
+            case ROTATED -> { }
         }
 
-        // Generate new token pair
-        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(userDetails, user.get().getId());
+        // Load the user once; it still has to exist to get new tokens
+        User user = userRepository.findByUsername(claims.getSubject())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Generate new token pair; the refresh token continues the same family
+        Map<String, String> tokens = jwtTokenUtil.generateTokenPair(user, user.getId(), familyId);
 
         return new TokenResponse(
                 tokens.get("accessToken"),
@@ -167,11 +171,25 @@ public class AuthService {
                 jwtConfig.getAccessTokenExpiration() / 1000);
     }
 
+    /**
+     * Revoke the family of a refresh token so neither it nor any token rotated
+     * from it can be used again; invalid tokens are ignored
+     */
+    public void logout(String refreshToken) {
+        Claims claims = jwtTokenUtil.validateRefreshToken(refreshToken);
+        if (claims != null) {
+            long tokenId = jwtTokenUtil.tokenId(claims, refreshToken);
+            refreshTokenStore.revokeFamily(jwtTokenUtil.familyId(claims, tokenId));
+        }
+    }
+
     /**
      * Login a user with email
      */
     public AuthResponse loginWithEmail(String email, String password) {
         try {
+            rejectIfHashingSaturated();
+
             // First, find user by email
             Optional<User> userOpt = userRepository.findByEmail(email);
             if (userOpt.isEmpty()) {
@@ -193,8 +211,7 @@ public class AuthService {
             String role = user.getRoles().iterator().next();
 
             // Generate tokens
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(user.getUsername());
-            Map<String, String> tokens = jwtTokenUtil.generateTokenPair(userDetails, user.getId());
+            Map<String, String> tokens = jwtTokenUtil.generateTokenPair(user, user.getId());
 
             return AuthResponse.success(
                     "Login successful",
@@ -202,9 +219,42 @@ public class AuthService {
                     role,
                     tokens.get("accessToken"));
 
+        } catch (PasswordHashingOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Invalid email or password");
         }
     }
 
+    /**
+     * Tell an email clash from a username clash on a failed insert: by the violated
+     * constraint's name (uk_users_email), or for constraints created before they were
+     * named, by the column in the database's message, e.g. "Key (email)=(...)"
+     */
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName().toLowerCase();
+                if (name.contains(User.EMAIL_CONSTRAINT)) {
+                    return true;
+                }
+                if (name.contains(User.USERNAME_CONSTRAINT)) {
+                    return false;
+                }
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains("(email)");
+    }
+
+    /**
+     * Shed a login or register before touching the database when the password
+     * hashing queue is already full; the request would be rejected there anyway
+     */
+    private void rejectIfHashingSaturated() {
+        if (passwordEncoder instanceof BoundedPasswordEncoder bounded && bounded.isSaturated()) {
+            throw bounded.overloaded();
+        }
+    }
+
 }
@@ -36,9 +36,6 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "User not found with username: " + username));
 
-        // Log successful user loading (for debugging)
-        System.out.println("Loaded user: " + user.getUsername() + " with roles: " + user.getRoles());
-
         // Return the user (our User entity implements UserDetails)
         return user;
     }
@@ -0,0 +1,202 @@
+package com.govindkulk.user_service.token;
+
+import java.util.Arrays;
+
+/**
+ * Expiring Id Set
+ *
+ * Set of 64-bit ids where every id carries an expiry, kept without boxing: an
+ * open-addressing long[] table for membership and a time wheel of long[] buckets,
+ * one per tick, for expiry.
+ *
+ * Key Features:
+ * - contains and add are O(1); an entry costs about 21 bytes at the maximum load
+ * - Linear probing with backward-shift deletion, so removals leave no tombstones
+ * - advance drops whole buckets as the clock passes them instead of scanning the table
+ * - An entry is never dropped before its expiry, rounded up to the tick; expiries
+ *   further away than the wheel's horizon are clamped to it
+ *
+ * Not thread-safe: RefreshTokenStore guards it with a lock.
+ */
+final class ExpiringIdSet {
+
+    private static final long EMPTY = 0L;
+    // Stored in place of id 0, which marks an empty slot
+    private static final long ZERO_ID = 0x9E3779B97F4A7C15L;
+    private static final double MAX_LOAD = 0.6;
+    private static final int MIN_BUCKET = 8;
+
+    private final long tickMillis;
+    private final long[][] buckets;
+    private final int[] bucketSizes;
+    private long currentTick;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    ExpiringIdSet(long tickMillis, long horizonMillis, int initialCapacity, long nowMillis) {
+        this.tickMillis = tickMillis;
+        // One bucket per tick up to the horizon, plus the current tick and a partial one
+        int slots = (int) Math.min(Integer.MAX_VALUE - 8, horizonMillis / tickMillis + 2);
+        this.buckets = new long[slots][];
+        this.bucketSizes = new int[slots];
+        this.currentTick = nowMillis / tickMillis;
+        allocate(tableSize(initialCapacity));
+    }
+
+    boolean contains(long id) {
+        long key = key(id);
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return true;
+            }
+            if (k == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return false if the id was already present (its expiry is left unchanged)
+     *         or has already expired
+     */
+    boolean add(long id, long expiresAtMillis) {
+        long tick = Math.ceilDiv(expiresAtMillis, tickMillis);
+        if (tick <= currentTick) {
+            return false;
+        }
+        tick = Math.min(tick, currentTick + buckets.length - 1);
+        long key = key(id);
+        if (!insert(key)) {
+            return false;
+        }
+        int slot = (int) Math.floorMod(tick, (long) buckets.length);
+        long[] bucket = buckets[slot];
+        int count = bucketSizes[slot];
+        if (bucket == null) {
+            bucket = buckets[slot] = new long[MIN_BUCKET];
+        } else if (count == bucket.length) {
+            bucket = buckets[slot] = Arrays.copyOf(bucket, count * 2);
+        }
+        bucket[count] = key;
+        bucketSizes[slot] = count + 1;
+        return true;
+    }
+
+    /**
+     * Drop every entry whose expiry is at or before now
+     *
+     * @return the number of entries dropped
+     */
+    int advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        int dropped = 0;
+        // After a full turn every bucket has been drained, so longer pauses just skip ahead
+        for (int turns = 0; currentTick < nowTick && turns < buckets.length; turns++) {
+            currentTick++;
+            int slot = (int) Math.floorMod(currentTick, (long) buckets.length);
+            long[] bucket = buckets[slot];
+            for (int i = 0; i < bucketSizes[slot]; i++) {
+                remove(bucket[i]);
+                dropped++;
+            }
+            buckets[slot] = null;
+            bucketSizes[slot] = 0;
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return dropped;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the live entries as (id, expiry) pairs, with each expiry rounded up to its tick
+     */
+    long[] toArray() {
+        long[] entries = new long[size * 2];
+        int n = 0;
+        for (int ahead = 1; ahead < buckets.length; ahead++) {
+            long tick = currentTick + ahead;
+            int slot = (int) Math.floorMod(tick, (long) buckets.length);
+            for (int i = 0; i < bucketSizes[slot]; i++) {
+                entries[n++] = buckets[slot][i];
+                entries[n++] = tick * tickMillis;
+            }
+        }
+        return entries;
+    }
+
+    private boolean insert(long key) {
+        int i = index(key);
+        for (long k = keys[i]; k != EMPTY; k = keys[i]) {
+            if (k == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    private void remove(long key) {
+        int gap = index(key);
+        while (keys[gap] != key) {
+            if (keys[gap] == EMPTY) {
+                return;
+            }
+            gap = (gap + 1) & mask;
+        }
+        // Shift later entries of the probe run back into the gap so lookups never stop early
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != EMPTY) {
+                int i = index(key);
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long key(long id) {
+        return id == EMPTY ? ZERO_ID : id;
+    }
+
+    private static int tableSize(int expected) {
+        int needed = (int) Math.min(1 << 30, Math.max(16, (long) Math.ceil(expected / MAX_LOAD)));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
@@ -0,0 +1,410 @@
+package com.govindkulk.user_service.token;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.govindkulk.user_service.config.JwtConfig;
+import com.govindkulk.user_service.config.TokenStateConfig;
+import com.govindkulk.user_service.model.TokenStateEntry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Refresh Token Store
+ *
+ * Rotation and revocation state for refresh tokens, held in memory so checking a
+ * refresh token adds no database round trip.
+ *
+ * Key Features:
+ * - Every refresh token belongs to a family started at login; a refresh spends
+ *   its token and hands out the next one in the same family
+ * - Spent token ids and revoked family ids live in two ExpiringIdSets; an id is
+ *   kept only until the tokens it could match have expired anyway
+ * - Presenting a spent token again means it was copied, so the whole family is
+ *   revoked and the reuse is counted (auth.refresh.reuse)
+ * - Logout revokes the caller's family
+ * - Shared (token-state.shared, the default): changes are written behind to the
+ *   token_state table, and every instance reads the rows recorded since its last
+ *   sync every sync-interval, so a token spent or revoked on one replica is refused
+ *   by the others from their next sync on; logouts are written immediately.
+ *   Expired rows are purged periodically
+ * - Otherwise snapshotted to token-state.snapshot-path (write to a temp file, then
+ *   an atomic rename) when changed, and on shutdown; loaded at startup, skipping
+ *   expired entries
+ *
+ * Checks never wait for the database. The price is that a token spent on two
+ * replicas within one sync interval is not detected as reused.
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x544B5354; // "TKST"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO token_state (kind, entry_id, expires_at, recorded_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT kind, entry_id, expires_at FROM token_state WHERE recorded_at >= ? AND expires_at > ?";
+    private static final String PURGE_SQL = "DELETE FROM token_state WHERE expires_at <= ?";
+    private static final int WRITE_BATCH = 500;
+
+    /**
+     * What happened to a refresh token presented for rotation
+     */
+    public enum Outcome {
+        ROTATED,  // first use; the token is now spent
+        REUSED,   // already spent; its family has just been revoked
+        REVOKED   // its family was revoked earlier (logout or reuse)
+    }
+
+    /**
+     * A spent token or revoked family, as written to and read from token_state
+     */
+    private record Change(short kind, long id, long expiresAtMillis) {
+    }
+
+    private final TokenStateConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final long refreshTokenTtlMillis;
+    private final ExpiringIdSet spentTokens;
+    private final ExpiringIdSet revokedFamilies;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Counter reuses;
+    // Guarded by the write lock
+    private boolean dirty;
+    // Changes not yet written to token_state; guarded by the write lock
+    private List<Change> unwritten = new ArrayList<>();
+    // Serializes syncs. A lock rather than synchronized: it is held across JDBC calls
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // Start of the last successful sync; -1 until the table has been read once
+    private volatile long lastSyncMillis = -1;
+
+    public RefreshTokenStore(TokenStateConfig config, JwtConfig jwtConfig, JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshTokenTtlMillis = jwtConfig.getRefreshTokenExpiration();
+        long tickMillis = Math.max(1, config.getTick().toMillis());
+        // No refresh token outlives its TTL, so neither set needs to look further ahead
+        long horizonMillis = refreshTokenTtlMillis + tickMillis;
+        long now = System.currentTimeMillis();
+        this.spentTokens = new ExpiringIdSet(tickMillis, horizonMillis, config.getInitialCapacity(), now);
+        this.revokedFamilies = new ExpiringIdSet(tickMillis, horizonMillis, config.getInitialCapacity(), now);
+        Gauge.builder("auth.refresh.spent", this, store -> store.size(store.spentTokens))
+                .description("Spent refresh token ids kept for reuse detection")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.revoked.families", this, store -> store.size(store.revokedFamilies))
+                .description("Refresh token families revoked by logout or reuse")
+                .register(meterRegistry);
+        this.reuses = Counter.builder("auth.refresh.reuse")
+                .description("Spent refresh tokens presented again, revoking their family")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spend a refresh token whose signature and expiry have been verified
+     *
+     * @param tokenId         the token's id (jti)
+     * @param familyId        the family the token belongs to
+     * @param expiresAtMillis the token's expiry; its id is remembered until then
+     */
+    public Outcome rotate(long tokenId, long familyId, long expiresAtMillis) {
+        if (!config.isEnabled()) {
+            return Outcome.ROTATED;
+        }
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            spentTokens.advance(now);
+            revokedFamilies.advance(now);
+            if (revokedFamilies.contains(familyId)) {
+                return Outcome.REVOKED;
+            }
+            if (!spentTokens.add(tokenId, expiresAtMillis)) {
+                // Every token of the family issued so far expires within one TTL from now
+                revokedFamilies.add(familyId, now + refreshTokenTtlMillis);
+                record(TokenStateEntry.REVOKED_FAMILY, familyId, now + refreshTokenTtlMillis);
+                reuses.increment();
+                return Outcome.REUSED;
+            }
+            record(TokenStateEntry.SPENT_TOKEN, tokenId, expiresAtMillis);
+            return Outcome.ROTATED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Revoke every refresh token in a family, past and future
+     */
+    public void revokeFamily(long familyId) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (revokedFamilies.add(familyId, now + refreshTokenTtlMillis)) {
+                record(TokenStateEntry.REVOKED_FAMILY, familyId, now + refreshTokenTtlMillis);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Logout is not on the refresh path, so other instances need not wait for the next sync
+        flush();
+    }
+
+    /**
+     * Write local changes to token_state, then apply the rows other instances
+     * recorded since the last sync (all unexpired rows on the first run)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${token-state.sync-interval-ms:2000}")
+    public void sync() {
+        if (!isShared()) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            flush();
+            long startedAt = System.currentTimeMillis();
+            long since = lastSyncMillis < 0 ? 0 : lastSyncMillis - config.getSyncOverlap().toMillis();
+            List<Change> changes = jdbcTemplate.query(SELECT_SQL,
+                    (rs, row) -> new Change(rs.getShort(1), rs.getLong(2), rs.getTimestamp(3).getTime()),
+                    new Timestamp(since), new Timestamp(startedAt));
+            int applied = apply(changes, startedAt);
+            if (lastSyncMillis < 0) {
+                log.info("Loaded token state: {} entries", applied);
+            }
+            lastSyncMillis = startedAt;
+        } catch (DataAccessException e) {
+            log.warn("Token state sync failed: {}", e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${token-state.purge-interval-ms:600000}",
+            fixedDelayString = "${token-state.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        if (!isShared()) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(PURGE_SQL, new Timestamp(System.currentTimeMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to purge expired token state: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Note a change for the snapshot and, when shared, for token_state. Called under the write lock.
+     */
+    private void record(short kind, long id, long expiresAtMillis) {
+        dirty = true;
+        if (config.isShared()) {
+            unwritten.add(new Change(kind, id, expiresAtMillis));
+        }
+    }
+
+    private void flush() {
+        if (!isShared()) {
+            return;
+        }
+        List<Change> changes;
+        lock.writeLock().lock();
+        try {
+            if (unwritten.isEmpty()) {
+                return;
+            }
+            changes = unwritten;
+            unwritten = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, changes, WRITE_BATCH, (ps, change) -> {
+                ps.setShort(1, change.kind());
+                ps.setLong(2, change.id());
+                ps.setTimestamp(3, new Timestamp(change.expiresAtMillis()));
+                ps.setTimestamp(4, now);
+            });
+        } catch (DataAccessException e) {
+            // Retried on the next sync; rows already written by a partial batch are harmless duplicates
+            log.warn("Failed to write {} token state changes: {}", changes.size(), e.getMessage());
+            lock.writeLock().lock();
+            try {
+                unwritten.addAll(0, changes);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private int apply(List<Change> changes, long now) {
+        int applied = 0;
+        lock.writeLock().lock();
+        try {
+            spentTokens.advance(now);
+            revokedFamilies.advance(now);
+            for (Change change : changes) {
+                ExpiringIdSet set = change.kind() == TokenStateEntry.REVOKED_FAMILY ? revokedFamilies : spentTokens;
+                if (set.add(change.id(), change.expiresAtMillis())) {
+                    applied++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return applied;
+    }
+
+    private boolean isShared() {
+        return config.isEnabled() && config.isShared();
+    }
+
+    @PostConstruct
+    public void load() {
+        Path path = snapshotPath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring token state snapshot {} with an unknown format", path);
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                int spent = readEntries(in, spentTokens);
+                int revoked = readEntries(in, revokedFamilies);
+                log.info("Loaded token state: {} spent refresh tokens, {} revoked families", spent, revoked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to load token state snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${token-state.snapshot-interval-ms:30000}",
+            fixedDelayString = "${token-state.snapshot-interval-ms:30000}")
+    public void snapshot() {
+        Path path = snapshotPath();
+        if (path == null) {
+            return;
+        }
+        long[] spent;
+        long[] revoked;
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (spentTokens.advance(now) + revokedFamilies.advance(now) > 0) {
+                dirty = true;
+            }
+            if (!dirty) {
+                return;
+            }
+            spent = spentTokens.toArray();
+            revoked = revokedFamilies.toArray();
+            dirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // File I/O happens outside the lock so refreshes are not held up by the disk
+        try {
+            write(path, spent, revoked);
+        } catch (IOException e) {
+            log.warn("Failed to write token state snapshot {}: {}", path, e.getMessage());
+            lock.writeLock().lock();
+            try {
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        snapshot();
+    }
+
+    private Path snapshotPath() {
+        String path = config.getSnapshotPath();
+        return config.isEnabled() && !config.isShared() && path != null && !path.isBlank() ? Path.of(path) : null;
+    }
+
+    private int size(ExpiringIdSet set) {
+        lock.readLock().lock();
+        try {
+            return set.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void write(Path path, long[] spent, long[] revoked) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            writeEntries(out, spent);
+            writeEntries(out, revoked);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeEntries(DataOutputStream out, long[] entries) throws IOException {
+        out.writeInt(entries.length / 2);
+        for (long value : entries) {
+            out.writeLong(value);
+        }
+    }
+
+    private static int readEntries(DataInputStream in, ExpiringIdSet set) throws IOException {
+        int count = in.readInt();
+        int loaded = 0;
+        for (int i = 0; i < count; i++) {
+            long id = in.readLong();
+            long expiresAt = in.readLong();
+            if (set.add(id, expiresAt)) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+}
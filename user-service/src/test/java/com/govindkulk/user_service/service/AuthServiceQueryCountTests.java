@@ -0,0 +1,100 @@
+package com.govindkulk.user_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.govindkulk.user_service.dto.LoginRequest;
+import com.govindkulk.user_service.dto.RegisterRequest;
+import com.govindkulk.user_service.dto.TokenResponse;
+import com.govindkulk.user_service.exception.UserAlreadyExistsException;
+import com.govindkulk.user_service.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the SQL statements each AuthService flow sends, so a change that adds a
+ * lookup back shows up here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-query-count;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "token-state.snapshot-path=",
+        "eureka.client.enabled=false"
+})
+class AuthServiceQueryCountTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void registerInsertsOnce() {
+        authService.register(new RegisterRequest("alice", "secret-password", "alice@example.com"));
+
+        // users row + user_roles row, no existence checks and no read-back
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void registerDetectsDuplicatesOnInsert() {
+        authService.register(new RegisterRequest("alice", "secret-password", "alice@example.com"));
+
+        statistics.clear();
+        UserAlreadyExistsException username = assertThrows(UserAlreadyExistsException.class,
+                () -> authService.register(new RegisterRequest("alice", "secret-password", "other@example.com")));
+        assertEquals("User already exists", username.getMessage());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        UserAlreadyExistsException email = assertThrows(UserAlreadyExistsException.class,
+                () -> authService.register(new RegisterRequest("bob", "secret-password", "alice@example.com")));
+        assertEquals("Email already exists", email.getMessage());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loginReadsUserOnce() {
+        authService.register(new RegisterRequest("alice", "secret-password", "alice@example.com"));
+
+        statistics.clear();
+        authService.login(new LoginRequest("alice", "secret-password"));
+
+        // user and roles in one select
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void refreshReadsUserOnce() {
+        TokenResponse tokens = authService.register(new RegisterRequest("alice", "secret-password", "alice@example.com"));
+
+        statistics.clear();
+        authService.refreshToken(tokens.getRefreshToken());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.govindkulk.user_service.token;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiringIdSetTest {
+
+    private static final long TICK = 1000;
+    private static final long HORIZON = 10_000;
+
+    @Test
+    void addedIdsAreFoundUntilTheyExpire() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        assertTrue(set.add(42, 3_000));
+        assertFalse(set.add(42, 5_000), "already present");
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+
+        assertEquals(0, set.advance(2_999));
+        assertTrue(set.contains(42));
+        assertEquals(1, set.advance(3_000));
+        assertFalse(set.contains(42));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void expiryIsRoundedUpToTheTick() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        set.add(1, 1_500);
+
+        set.advance(1_999);
+        assertTrue(set.contains(1), "never dropped before its expiry");
+        set.advance(2_000);
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void alreadyExpiredIdsAreNotAdded() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 5_000);
+
+        assertFalse(set.add(1, 4_000));
+        assertFalse(set.add(2, 5_000));
+        assertFalse(set.contains(1));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void idZeroIsAnOrdinaryId() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0, 2_000));
+        assertTrue(set.contains(0));
+
+        set.advance(2_000);
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    void expiriesPastTheHorizonAreClamped() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        set.add(1, 1_000_000);
+
+        set.advance(HORIZON);
+        assertTrue(set.contains(1));
+        set.advance(HORIZON + 2 * TICK);
+        assertFalse(set.contains(1), "kept no longer than the wheel can hold");
+    }
+
+    @Test
+    void wheelWrapsAroundManyTimes() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        long id = 0;
+        for (long now = 0; now < 50 * HORIZON; now += TICK) {
+            set.advance(now);
+            set.add(++id, now + 3 * TICK);
+            assertTrue(set.contains(id));
+            if (id > 3) {
+                assertFalse(set.contains(id - 3), "id " + (id - 3) + " at " + now);
+            }
+        }
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void longPauseDropsEverything() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        for (int i = 1; i <= 100; i++) {
+            set.add(i, i * 100L);
+        }
+
+        assertEquals(100, set.advance(1_000 * HORIZON));
+        assertEquals(0, set.size());
+        assertTrue(set.add(7, 1_000 * HORIZON + TICK), "clock moved on with the pause");
+    }
+
+    @Test
+    void growsAndKeepsProbeRunsIntactAsEntriesLeave() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        for (long id = 1; id <= 10_000; id++) {
+            // Alternate expiries so removals punch holes all over the table
+            set.add(id * 0x9E3779B97F4A7C15L, id % 2 == 0 ? 2_000 : 5_000);
+        }
+        assertEquals(10_000, set.size());
+
+        set.advance(2_000);
+        assertEquals(5_000, set.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id % 2 == 1, set.contains(id * 0x9E3779B97F4A7C15L), "id " + id);
+        }
+    }
+
+    @Test
+    void toArrayListsLiveEntriesWithTheirTick() {
+        ExpiringIdSet set = new ExpiringIdSet(TICK, HORIZON, 16, 0);
+        set.add(1, 1_500);
+        set.add(2, 3_000);
+        set.add(3, 500);
+        set.advance(1_000);
+
+        assertArrayEquals(new long[] { 1, 2_000, 2, 3_000 }, set.toArray());
+    }
+}
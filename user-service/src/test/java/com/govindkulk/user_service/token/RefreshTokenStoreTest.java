@@ -0,0 +1,159 @@
+package com.govindkulk.user_service.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.govindkulk.user_service.config.JwtConfig;
+import com.govindkulk.user_service.config.TokenStateConfig;
+import com.govindkulk.user_service.token.RefreshTokenStore.Outcome;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshTokenStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final JwtConfig jwtConfig = new JwtConfig();
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:token-state;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE token_state (id BIGINT AUTO_INCREMENT PRIMARY KEY, kind SMALLINT NOT NULL, "
+                + "entry_id BIGINT NOT NULL, expires_at TIMESTAMP NOT NULL, recorded_at TIMESTAMP NOT NULL)");
+    }
+
+    @AfterEach
+    void dropTable() {
+        jdbcTemplate.execute("DROP TABLE token_state");
+    }
+
+    @Test
+    void secondUseOfATokenRevokesItsFamily() {
+        RefreshTokenStore store = store(sharedConfig());
+
+        assertEquals(Outcome.ROTATED, store.rotate(1, 100, expiry()));
+        assertEquals(Outcome.ROTATED, store.rotate(2, 100, expiry()));
+        assertEquals(Outcome.REUSED, store.rotate(1, 100, expiry()));
+        // The legitimate holder's next token is refused too
+        assertEquals(Outcome.REVOKED, store.rotate(3, 100, expiry()));
+        assertEquals(Outcome.ROTATED, store.rotate(4, 200, expiry()), "other families are untouched");
+    }
+
+    @Test
+    void logoutOnOneInstanceIsSeenByAnotherAfterItsSync() {
+        RefreshTokenStore first = store(sharedConfig());
+        RefreshTokenStore second = store(sharedConfig());
+        first.sync();
+        second.sync();
+
+        first.revokeFamily(100);
+        second.sync();
+
+        assertEquals(Outcome.REVOKED, second.rotate(1, 100, expiry()));
+    }
+
+    @Test
+    void tokenSpentOnOneInstanceCountsAsReuseOnAnother() {
+        RefreshTokenStore first = store(sharedConfig());
+        RefreshTokenStore second = store(sharedConfig());
+        first.sync();
+        second.sync();
+
+        assertEquals(Outcome.ROTATED, first.rotate(1, 100, expiry()));
+        assertEquals(0, rows(), "spends are written behind, not on the refresh path");
+        first.sync();
+        second.sync();
+
+        assertEquals(Outcome.REUSED, second.rotate(1, 100, expiry()));
+        second.sync();
+        first.sync();
+        assertEquals(Outcome.REVOKED, first.rotate(2, 100, expiry()));
+    }
+
+    @Test
+    void restartedInstanceLoadsUnexpiredRows() {
+        RefreshTokenStore first = store(sharedConfig());
+        first.sync();
+        first.rotate(1, 100, expiry());
+        first.revokeFamily(200);
+        first.rotate(2, 300, System.currentTimeMillis() - 1); // already expired
+        first.close();
+
+        RefreshTokenStore restarted = store(sharedConfig());
+        restarted.sync();
+
+        assertEquals(Outcome.REUSED, restarted.rotate(1, 100, expiry()));
+        assertEquals(Outcome.REVOKED, restarted.rotate(5, 200, expiry()));
+        assertEquals(Outcome.ROTATED, restarted.rotate(2, 300, expiry()));
+    }
+
+    @Test
+    void purgeDeletesExpiredRows() throws InterruptedException {
+        RefreshTokenStore store = store(sharedConfig());
+        store.rotate(1, 100, expiry());
+        store.rotate(2, 100, System.currentTimeMillis() + 1);
+        store.sync();
+        assertEquals(2, rows());
+
+        Thread.sleep(5);
+        store.purgeExpired();
+        assertEquals(1, rows());
+    }
+
+    @Test
+    void unsharedStoreSurvivesARestartThroughItsSnapshot() {
+        TokenStateConfig config = new TokenStateConfig();
+        config.setShared(false);
+        config.setSnapshotPath(directory.resolve("token-state.bin").toString());
+        RefreshTokenStore first = store(config);
+        first.rotate(1, 100, expiry());
+        first.revokeFamily(200);
+        first.close();
+
+        RefreshTokenStore restarted = store(config);
+        restarted.load();
+
+        assertEquals(Outcome.REUSED, restarted.rotate(1, 100, expiry()));
+        assertEquals(Outcome.REVOKED, restarted.rotate(5, 200, expiry()));
+        assertEquals(0, rows(), "nothing is written to token_state");
+    }
+
+    @Test
+    void disabledStoreAcceptsEveryToken() {
+        TokenStateConfig config = sharedConfig();
+        config.setEnabled(false);
+        RefreshTokenStore store = store(config);
+        store.revokeFamily(100);
+
+        assertEquals(Outcome.ROTATED, store.rotate(1, 100, expiry()));
+        assertEquals(Outcome.ROTATED, store.rotate(1, 100, expiry()));
+    }
+
+    private TokenStateConfig sharedConfig() {
+        TokenStateConfig config = new TokenStateConfig();
+        config.setSnapshotPath("");
+        return config;
+    }
+
+    private RefreshTokenStore store(TokenStateConfig config) {
+        return new RefreshTokenStore(config, jwtConfig, jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + jwtConfig.getRefreshTokenExpiration();
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM token_state", Integer.class);
+    }
+}